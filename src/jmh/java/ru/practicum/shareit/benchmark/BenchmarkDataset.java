@@ -0,0 +1,135 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic dataset: every user owns the same number of items, every item has the same
+ * number of bookings by random other users spread a month around now, and one comment.
+ */
+public class BenchmarkDataset {
+    public static final String[] WORDS = {"drill", "saw", "hammer", "ladder", "tent", "bike", "camera", "kayak",
+            "grill", "projector", "speaker", "scooter", "sleeping bag", "lawn mower", "snowboard", "guitar"};
+    private static final String[] STATUSES = {"WAITING", "APPROVED", "REJECTED"};
+    private static final int BATCH_SIZE = 1000;
+
+    private final int users;
+    private final int itemsPerUser;
+    private final int bookingsPerItem;
+
+    public BenchmarkDataset(int users, int itemsPerUser, int bookingsPerItem) {
+        this.users = users;
+        this.itemsPerUser = itemsPerUser;
+        this.bookingsPerItem = bookingsPerItem;
+    }
+
+    public void seed(JdbcTemplate jdbcTemplate) {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Object[]> userRows = new ArrayList<>();
+        for (int userId = 1; userId <= users; userId++) {
+            userRows.add(new Object[]{userId, "user " + userId, "user" + userId + "@bench.ru"});
+        }
+        insert(jdbcTemplate, "INSERT INTO users (id, name, email) VALUES (?, ?, ?)", userRows);
+
+        List<Object[]> itemRows = new ArrayList<>();
+        List<Object[]> commentRows = new ArrayList<>();
+        List<Object[]> bookingRows = new ArrayList<>();
+        int itemId = 0;
+        int bookingId = 0;
+        for (int ownerId = 1; ownerId <= users; ownerId++) {
+            for (int i = 0; i < itemsPerUser; i++) {
+                itemId++;
+                String word = WORDS[random.nextInt(WORDS.length)];
+                itemRows.add(new Object[]{itemId, word + " " + itemId, "good " + word + ", " + WORDS[random.nextInt(WORDS.length)] + " included",
+                        random.nextInt(10) > 0, ownerId});
+                commentRows.add(new Object[]{itemId, "nice " + word, itemId, otherUser(random, ownerId), Timestamp.valueOf(now.minusDays(1))});
+
+                for (int b = 0; b < bookingsPerItem; b++) {
+                    LocalDateTime start = now.plusHours(random.nextInt(24 * 60) - 24 * 30);
+                    bookingRows.add(new Object[]{++bookingId, Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(1 + random.nextInt(48))),
+                            itemId, otherUser(random, ownerId), STATUSES[random.nextInt(STATUSES.length)]});
+                }
+            }
+        }
+        insert(jdbcTemplate, "INSERT INTO items (id, name, description, is_available, owner_id) VALUES (?, ?, ?, ?, ?)", itemRows);
+        insert(jdbcTemplate, "INSERT INTO comments (id, text, item_id, author_id, created) VALUES (?, ?, ?, ?, ?)", commentRows);
+        insert(jdbcTemplate, "INSERT INTO bookings (id, start_time, end_time, item_id, booker_id, status) VALUES (?, ?, ?, ?, ?, ?)", bookingRows);
+
+        restartIdentity(jdbcTemplate, "users", users);
+        restartIdentity(jdbcTemplate, "items", itemId);
+        restartIdentity(jdbcTemplate, "comments", itemId);
+        restartIdentity(jdbcTemplate, "bookings", bookingId);
+    }
+
+    /**
+     * Adds {@code requestsPerUser} requests, a minute apart, for each of the first {@code requesters} users and
+     * makes every other item an answer to one of them.
+     */
+    public void seedRequests(JdbcTemplate jdbcTemplate, int requesters, int requestsPerUser) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> requestRows = new ArrayList<>();
+        int requestId = 0;
+        for (int requesterId = 1; requesterId <= Math.min(requesters, users); requesterId++) {
+            for (int i = 0; i < requestsPerUser; i++) {
+                requestRows.add(new Object[]{++requestId, "need a " + WORDS[requestId % WORDS.length], requesterId,
+                        Timestamp.valueOf(now.minusMinutes(requestId))});
+            }
+        }
+        insert(jdbcTemplate, "INSERT INTO requests (id, description, requesting_user_id, created) VALUES (?, ?, ?, ?)", requestRows);
+        restartIdentity(jdbcTemplate, "requests", requestId);
+        if (requestId == 0) {
+            return;
+        }
+
+        List<Object[]> answerRows = new ArrayList<>();
+        for (int itemId = 2; itemId <= users * itemsPerUser; itemId += 2) {
+            answerRows.add(new Object[]{1 + (itemId / 2 - 1) % requestId, itemId});
+        }
+        insert(jdbcTemplate, "UPDATE items SET request_id = ? WHERE id = ?", answerRows);
+    }
+
+    /**
+     * Adds {@code bookings} approved one-hour bookings of the item by another user, one every two hours back from now.
+     */
+    public void seedHistory(JdbcTemplate jdbcTemplate, int itemId, int bookings) {
+        Random random = new Random(itemId);
+        int ownerId = (itemId - 1) / itemsPerUser + 1;
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> bookingRows = new ArrayList<>();
+        for (int i = 1; i <= bookings; i++) {
+            LocalDateTime start = now.minusHours(2L * i);
+            bookingRows.add(new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(1)), itemId,
+                    otherUser(random, ownerId), "APPROVED"});
+        }
+        insert(jdbcTemplate, "INSERT INTO bookings (start_time, end_time, item_id, booker_id, status) VALUES (?, ?, ?, ?, ?)", bookingRows);
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    private int otherUser(Random random, int userId) {
+        if (users == 1) {
+            return userId;
+        }
+        int other = 1 + random.nextInt(users - 1);
+        return other >= userId ? other + 1 : other;
+    }
+
+    private void insert(JdbcTemplate jdbcTemplate, String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+    }
+
+    private void restartIdentity(JdbcTemplate jdbcTemplate, String table, int lastId) {
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + (lastId + 1));
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import jakarta.persistence.EntityManager;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingParticipant;
+import ru.practicum.shareit.booking.model.BookingSearchMode;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity graph versus flat projection for the first page of a booking list.
+ * Run with {@code -prof gc} to compare allocation per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingReadPathBenchmark {
+    private static final int PAGE_SIZE = 100;
+    private static final String BOOKER_ENTITIES = "select b from Booking b where b.booker.id = :userId " +
+            "order by b.start desc, b.id desc";
+    private static final String OWNER_ENTITIES = "select b from Booking b where b.item.owner.id = :userId " +
+            "order by b.start desc, b.id desc";
+
+    @Benchmark
+    public List<BookingDtoOutput> bookerEntities(ShareItState state) {
+        return entities(state, BOOKER_ENTITIES).stream()
+                .map(state.bean(BookingMapper.class)::toBookingDtoOutput)
+                .toList();
+    }
+
+    @Benchmark
+    public List<BookingDtoOutput> bookerProjections(ShareItState state) {
+        return state.bean(BookingRepository.class)
+                .findViews(BookingParticipant.BOOKER, 1, BookingSearchMode.ALL, LocalDateTime.now(), null, 0, PAGE_SIZE).stream()
+                .map(state.bean(BookingMapper.class)::toBookingDtoOutput)
+                .toList();
+    }
+
+    @Benchmark
+    public List<BookingDtoOutput> ownerEntities(ShareItState state) {
+        return entities(state, OWNER_ENTITIES).stream()
+                .map(state.bean(BookingMapper.class)::toBookingDtoOutput)
+                .toList();
+    }
+
+    @Benchmark
+    public List<BookingDtoOutput> ownerProjections(ShareItState state) {
+        return state.bean(BookingRepository.class)
+                .findViews(BookingParticipant.OWNER, 1, BookingSearchMode.ALL, LocalDateTime.now(), null, 0, PAGE_SIZE).stream()
+                .map(state.bean(BookingMapper.class)::toBookingDtoOutput)
+                .toList();
+    }
+
+    /**
+     * The entity read the booking lists used before the projections: managed bookings with eager item and booker.
+     */
+    private List<Booking> entities(ShareItState state, String query) {
+        return state.bean(EntityManager.class).createQuery(query, Booking.class)
+                .setParameter("userId", 1)
+                .setMaxResults(PAGE_SIZE)
+                .getResultList();
+    }
+}
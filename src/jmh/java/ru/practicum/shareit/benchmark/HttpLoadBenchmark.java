@@ -0,0 +1,115 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.service.BookingConflictIndex;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop HTTP load on a running server, comparing Tomcat's platform thread pool with the
+ * {@code virtual-threads} profile. Both modes get the same connection pool; throughput and latency percentiles
+ * (p99 in the sample time results) are reported per mode. Client concurrency is set with {@code -t}. Per-user rate
+ * limiting is off, since a few hundred users issuing thousands of requests a second would soon be answered with 429.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(64)
+@Fork(1)
+public class HttpLoadBenchmark {
+    private static final int USERS = 200;
+    private static final int ITEMS_PER_USER = 20;
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @State(Scope.Benchmark)
+    public static class Server {
+        @Param({"platform", "virtual"})
+        public String threads;
+
+        @Param("20")
+        public int poolSize;
+
+        private ConfigurableApplicationContext context;
+        private HttpClient client;
+        private String baseUrl;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            SpringApplicationBuilder builder = new SpringApplicationBuilder(ShareItApp.class);
+            builder.profiles("virtual".equals(threads) ? new String[]{"test", "virtual-threads"} : new String[]{"test"});
+            context = builder.run(ShareItState.arguments(
+                    "--server.port=0",
+                    "--shareit.rate-limit.enabled=false",
+                    "--spring.datasource.hikari.maximum-pool-size=" + poolSize));
+
+            new BenchmarkDataset(USERS, ITEMS_PER_USER, 10).seed(context.getBean(JdbcTemplate.class));
+            context.getBean(ItemSearchIndex.class).rebuild();
+            context.getBean(BookingConflictIndex.class).rebuild();
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            baseUrl = "http://localhost:" + port;
+            client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            client.close();
+            context.close();
+        }
+
+        int get(String path, int userId) throws IOException, InterruptedException {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header(USER_HEADER, String.valueOf(userId))
+                    .GET()
+                    .build();
+            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            if (status != 200) {
+                // a shed request is cheap and would flatter the mode that sheds
+                throw new IllegalStateException("GET " + path + " answered " + status);
+            }
+            return status;
+        }
+    }
+
+    @Benchmark
+    public int bookings(Server server) throws IOException, InterruptedException {
+        int userId = 1 + ThreadLocalRandom.current().nextInt(USERS);
+        return server.get("/bookings?state=ALL&size=20", userId);
+    }
+
+    @Benchmark
+    public int ownerItems(Server server) throws IOException, InterruptedException {
+        int userId = 1 + ThreadLocalRandom.current().nextInt(USERS);
+        return server.get("/items?size=20", userId);
+    }
+}
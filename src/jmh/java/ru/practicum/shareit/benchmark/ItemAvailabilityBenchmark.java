@@ -0,0 +1,64 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.service.ItemAvailabilityCalendar;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Availability of an item with a long booking history, from the calendar cache and with the cache dropped before
+ * every call. The history length is set with {@code -p historicalBookings=..}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemAvailabilityBenchmark {
+    private static final Integer ITEM_ID = 1;
+    private static final Integer USER_ID = 2;
+
+    @State(Scope.Benchmark)
+    public static class History {
+        @Param("20000")
+        public int historicalBookings;
+
+        private LocalDateTime from;
+        private LocalDateTime to;
+
+        @Setup(Level.Trial)
+        public void setUp(ShareItState state) {
+            new BenchmarkDataset(state.users, state.itemsPerUser, state.bookingsPerItem)
+                    .seedHistory(state.bean(JdbcTemplate.class), ITEM_ID, historicalBookings);
+            from = LocalDateTime.now();
+            to = from.plusDays(30);
+        }
+    }
+
+    @Benchmark
+    public ItemAvailabilityDto cached(ShareItState state, History history) {
+        return state.bean(ItemService.class).getAvailability(ITEM_ID, USER_ID, history.from, history.to);
+    }
+
+    @Benchmark
+    public ItemAvailabilityDto uncached(ShareItState state, History history) {
+        state.bean(ItemAvailabilityCalendar.class).evict(List.of(ITEM_ID));
+        return state.bean(ItemService.class).getAvailability(ITEM_ID, USER_ID, history.from, history.to);
+    }
+}
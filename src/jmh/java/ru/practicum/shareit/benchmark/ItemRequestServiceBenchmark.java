@@ -0,0 +1,68 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.request.dto.ItemRequestDtoExtended;
+import ru.practicum.shareit.request.service.ItemRequestService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request lists of users with thousands of requests, each page answered by items of other users.
+ * The number of heavy requesters and their requests is set with {@code -p requesters=.. -p requestsPerUser=..}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemRequestServiceBenchmark {
+    private static final PageParams FIRST_PAGE = PageParams.of(0, Integer.parseInt(PageParams.DEFAULT_SIZE));
+
+    @State(Scope.Benchmark)
+    public static class Requests {
+        @Param("10")
+        public int requesters;
+
+        @Param("2000")
+        public int requestsPerUser;
+
+        private PageParams lastPage;
+
+        @Setup(Level.Trial)
+        public void setUp(ShareItState state) {
+            new BenchmarkDataset(state.users, state.itemsPerUser, state.bookingsPerItem)
+                    .seedRequests(state.bean(JdbcTemplate.class), requesters, requestsPerUser);
+            int size = FIRST_PAGE.getSize();
+            lastPage = PageParams.of(Math.max(0, requestsPerUser - size), size);
+        }
+    }
+
+    @Benchmark
+    public CursorPage<ItemRequestDtoExtended> getOwn(ShareItState state, Requests requests) {
+        return state.bean(ItemRequestService.class).getOwn(1, FIRST_PAGE);
+    }
+
+    @Benchmark
+    public CursorPage<ItemRequestDtoExtended> getOwnLastPage(ShareItState state, Requests requests) {
+        return state.bean(ItemRequestService.class).getOwn(1, requests.lastPage);
+    }
+
+    @Benchmark
+    public CursorPage<ItemRequestDtoExtended> getOthers(ShareItState state, Requests requests) {
+        return state.bean(ItemRequestService.class).getOthers(1, FIRST_PAGE);
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fuzzy search over the in-memory trigram index alone, with catalogs too large to seed into H2. Item names combine
+ * one of a few thousand brands with a common word, so a misspelt brand is a selective query and a misspelt common
+ * word is the worst case, whose trigram lists hold a large share of the catalog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ItemSearchIndexBenchmark {
+    private static final int BRANDS = 5000;
+    private static final double MIN_SIMILARITY = 0.5;
+    private static final int LIMIT = 20;
+
+    @Param({"100000", "1000000"})
+    private int items;
+
+    private ItemSearchIndex index;
+    private String misspeltBrand;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        String[] brands = new String[BRANDS];
+        for (int i = 0; i < BRANDS; i++) {
+            StringBuilder brand = new StringBuilder();
+            for (int j = 0; j < 5 + random.nextInt(4); j++) {
+                brand.append((char) ('a' + random.nextInt(26)));
+            }
+            brands[i] = brand.toString();
+        }
+        index = new ItemSearchIndex(null, new SimpleMeterRegistry());
+        String[] words = BenchmarkDataset.WORDS;
+        for (int id = 1; id <= items; id++) {
+            String word = words[random.nextInt(words.length)];
+            index.add(new Item(id, brands[random.nextInt(BRANDS)] + " " + word + " " + random.nextInt(1000),
+                    "good " + word + ", " + words[random.nextInt(words.length)] + " included", true));
+        }
+        String brand = brands[0];
+        misspeltBrand = brand.substring(0, 2) + brand.substring(3);
+    }
+
+    @Benchmark
+    public List<ItemSearchIndex.SimilarItem> misspeltBrand() {
+        return index.similar(misspeltBrand, MIN_SIMILARITY, LIMIT);
+    }
+
+    @Benchmark
+    public List<ItemSearchIndex.SimilarItem> misspeltCommonWord() {
+        return index.similar("projcetor", MIN_SIMILARITY, LIMIT);
+    }
+
+    @Benchmark
+    public List<ItemSearchIndex.SimilarItem> misspeltBrandAndWord() {
+        return index.similar(misspeltBrand + " hamer", MIN_SIMILARITY, LIMIT);
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoExtended;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.search.ItemSuggestIndex;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.PageParams;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemServiceBenchmark {
+    private static final PageParams FIRST_PAGE = PageParams.of(0, Integer.parseInt(PageParams.DEFAULT_SIZE));
+
+    @Benchmark
+    public CursorPage<ItemDto> search(ShareItState state) {
+        return state.bean(ItemService.class).search(1, "drill", FIRST_PAGE);
+    }
+
+    @Benchmark
+    public CursorPage<ItemDto> searchShortQuery(ShareItState state) {
+        return state.bean(ItemService.class).search(1, "dr", FIRST_PAGE);
+    }
+
+    @Benchmark
+    public List<ItemSuggestionDto> suggestOneLetter(ShareItState state) {
+        return state.bean(ItemService.class).suggest(1, "d", 10);
+    }
+
+    @Benchmark
+    public List<ItemSuggestionDto> suggest(ShareItState state) {
+        return state.bean(ItemService.class).suggest(1, "dri", 10);
+    }
+
+    @Benchmark
+    public List<ItemSuggestionDto> suggestFromIndex(ShareItState state) {
+        return state.bean(ItemSuggestIndex.class).suggest("dri", 10);
+    }
+
+    @Benchmark
+    public CursorPage<ItemDtoExtended> getAll(ShareItState state) {
+        return state.bean(ItemService.class).getAll(1, FIRST_PAGE);
+    }
+}
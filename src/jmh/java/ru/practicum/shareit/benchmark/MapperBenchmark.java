@@ -0,0 +1,73 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.dto.BookingDtoShortOutput;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    private Booking booking;
+    private Item item;
+    private ItemDto itemDto;
+
+    @Setup
+    public void setUp() {
+        User owner = User.builder().id(1).name("owner").email("owner@bench.ru").build();
+        User booker = User.builder().id(2).name("booker").email("booker@bench.ru").build();
+        item = new Item(1, "drill", "good drill", true);
+        item.setOwner(owner);
+        itemDto = ItemMapper.INSTANCE.toItemDto(item);
+
+        booking = new Booking();
+        booking.setId(1);
+        booking.setStart(LocalDateTime.now().plusDays(1));
+        booking.setEnd(LocalDateTime.now().plusDays(2));
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStatus(BookingStatus.APPROVED);
+    }
+
+    @Benchmark
+    public BookingDtoOutput toBookingDtoOutput() {
+        return BookingMapper.INSTANCE.toBookingDtoOutput(booking);
+    }
+
+    @Benchmark
+    public BookingDtoShortOutput toBookingDtoShortOutput() {
+        return BookingMapper.INSTANCE.toBookingDtoShortOutput(booking);
+    }
+
+    @Benchmark
+    public ItemDto toItemDto() {
+        return ItemMapper.INSTANCE.toItemDto(item);
+    }
+
+    @Benchmark
+    public Item toItem() {
+        return ItemMapper.INSTANCE.toItem(itemDto);
+    }
+}
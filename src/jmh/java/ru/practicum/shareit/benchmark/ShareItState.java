@@ -0,0 +1,71 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.service.BookingConflictIndex;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.util.stream.Stream;
+
+/**
+ * Application context on an in-memory H2 database seeded with {@link BenchmarkDataset}.
+ * The dataset size is set with {@code -p users=.. -p itemsPerUser=.. -p bookingsPerItem=..}.
+ */
+@State(Scope.Benchmark)
+public class ShareItState {
+    @Param("200")
+    public int users;
+
+    @Param("20")
+    public int itemsPerUser;
+
+    @Param("10")
+    public int bookingsPerItem;
+
+    private ConfigurableApplicationContext context;
+
+    /**
+     * Settings shared by benchmark contexts, passed as command line arguments: default properties would lose to
+     * the logging levels of {@code application.properties}.
+     */
+    public static String[] arguments(String... extra) {
+        return Stream.concat(Stream.of(
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.orm.jpa=WARN",
+                        "--logging.level.org.springframework.transaction=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN"),
+                Stream.of(extra)).toArray(String[]::new);
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .run(arguments());
+
+        new BenchmarkDataset(users, itemsPerUser, bookingsPerItem).seed(context.getBean(JdbcTemplate.class));
+        context.getBean(ItemSearchIndex.class).rebuild();
+        context.getBean(BookingConflictIndex.class).rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
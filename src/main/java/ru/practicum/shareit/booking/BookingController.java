@@ -1,15 +1,31 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingApprovalDtoInput;
+import ru.practicum.shareit.booking.dto.BookingApprovalDtoOutput;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.model.BookingParticipant;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.BookingStream;
+import ru.practicum.shareit.pagination.PageParams;
 
-
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/bookings")
@@ -17,6 +33,7 @@ import java.util.List;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public BookingDtoOutput add(@RequestHeader("X-Sharer-User-Id") @NotNull Integer userId,
@@ -31,21 +48,73 @@ public class BookingController {
         return bookingService.setApprove(bookingId, ownerId, isApproved);
     }
 
+    @PatchMapping("/batch")
+    public List<BookingApprovalDtoOutput> setApproveAll(@RequestHeader("X-Sharer-User-Id") @NotNull Integer ownerId,
+                                                        @Valid @RequestBody BookingApprovalDtoInput approvalDtoInput) {
+        return bookingService.setApproveAll(approvalDtoInput.getBookingIds(), ownerId, approvalDtoInput.getApproved());
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDtoOutput get(@PathVariable @NotNull Integer bookingId,
-                                                @RequestHeader("X-Sharer-User-Id") @NotNull Integer userId) {
+                                                @RequestHeader("X-Sharer-User-Id") @NotNull Integer userId,
+                                WebRequest request) {
+        Optional<String> etag = bookingService.getEtag(bookingId, userId);
+        if (etag.isPresent() && request.checkNotModified(etag.get())) {
+            return null;
+        }
         return bookingService.get(bookingId, userId);
     }
 
     @GetMapping
-    public List<BookingDtoOutput> getAll(@RequestParam(name = "state", defaultValue = "ALL", required = false) String searchMode,
-                                                         @RequestHeader("X-Sharer-User-Id") @NotNull Integer userId) {
-        return bookingService.getAll(searchMode, userId);
+    public ResponseEntity<List<BookingDtoOutput>> getAll(@RequestParam(name = "state", defaultValue = "ALL", required = false) String searchMode,
+                                                         @RequestHeader("X-Sharer-User-Id") @NotNull Integer userId,
+                                                         @RequestParam(defaultValue = PageParams.DEFAULT_FROM) @PositiveOrZero Integer from,
+                                                         @RequestParam(defaultValue = PageParams.DEFAULT_SIZE) @Positive @Max(PageParams.MAX_SIZE) Integer size,
+                                                         @RequestParam(required = false) String cursor) {
+        return bookingService.getAll(searchMode, userId, new PageParams(from, size, cursor)).toResponseEntity();
     }
 
     @GetMapping("/owner")
-    public List<BookingDtoOutput> getAllByOwner(@RequestParam(name = "state", defaultValue = "ALL", required = false) String searchMode,
-                                                                @RequestHeader("X-Sharer-User-Id") @NotNull Integer userId) {
-        return bookingService.getAllByOwner(searchMode, userId);
+    public ResponseEntity<List<BookingDtoOutput>> getAllByOwner(@RequestParam(name = "state", defaultValue = "ALL", required = false) String searchMode,
+                                                                @RequestHeader("X-Sharer-User-Id") @NotNull Integer userId,
+                                                                @RequestParam(defaultValue = PageParams.DEFAULT_FROM) @PositiveOrZero Integer from,
+                                                                @RequestParam(defaultValue = PageParams.DEFAULT_SIZE) @Positive @Max(PageParams.MAX_SIZE) Integer size,
+                                                                @RequestParam(required = false) String cursor) {
+        return bookingService.getAllByOwner(searchMode, userId, new PageParams(from, size, cursor)).toResponseEntity();
+    }
+
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAll(@RequestParam(name = "state", defaultValue = "ALL", required = false) String searchMode,
+                                                           @RequestHeader("X-Sharer-User-Id") @NotNull Integer userId) {
+        return stream(BookingParticipant.BOOKER, searchMode, userId);
+    }
+
+    @GetMapping("/owner/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllByOwner(@RequestParam(name = "state", defaultValue = "ALL", required = false) String searchMode,
+                                                                  @RequestHeader("X-Sharer-User-Id") @NotNull Integer userId) {
+        return stream(BookingParticipant.OWNER, searchMode, userId);
+    }
+
+    /**
+     * Writes the whole history as one JSON array, serializing each booking as soon as it is read.
+     * The request is checked before the response starts; the body itself runs on the MVC async executor.
+     */
+    private ResponseEntity<StreamingResponseBody> stream(BookingParticipant participant, String searchMode, Integer userId) {
+        BookingStream bookings = bookingService.streamAll(participant, searchMode, userId);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+                generator.writeStartArray();
+                bookings.forEach(booking -> {
+                    try {
+                        generator.writeObject(booking);
+                    } catch (IOException exception) {
+                        throw new UncheckedIOException(exception);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
-}
\ No newline at end of file
+}
@@ -2,37 +2,100 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingApprovalView;
+import ru.practicum.shareit.booking.dto.BookingEtagView;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.dto.BookingShortView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Integer> {
-    List<Booking> findByBooker_Id(Integer bookerId, Sort sort);
+public interface BookingRepository extends JpaRepository<Booking, Integer>, BookingViewRepository {
+    @Query("select b from Booking b where b.booker.id = :bookerId and b.end < :now")
+    List<Booking> findByBooker_IdAndEndIsBefore(@Param("bookerId") Integer bookerId, @Param("now") LocalDateTime currentDateTime, Sort sort);
 
-    List<Booking> findByBooker_IdAndStartIsAfter(Integer bookerId, LocalDateTime currentDateTime, Sort sort);
+    @Query("select new ru.practicum.shareit.booking.dto.BookingShortView(b.id, b.item.id, b.booker.id, b.start) " +
+            "from Booking b " +
+            "where b.item.id in :itemIds and b.status <> :status and b.start < :now " +
+            "and b.start = (select max(l.start) from Booking l " +
+            "where l.item.id = b.item.id and l.status <> :status and l.start < :now)")
+    List<BookingShortView> findLastByItemIds(@Param("itemIds") Collection<Integer> itemIds,
+                                             @Param("now") LocalDateTime now,
+                                             @Param("status") BookingStatus excludedStatus);
 
-    List<Booking> findByBooker_IdAndEndIsBefore(Integer bookerId, LocalDateTime currentDateTime, Sort sort);
+    @Query("select new ru.practicum.shareit.booking.dto.BookingShortView(b.id, b.item.id, b.booker.id, b.start) " +
+            "from Booking b " +
+            "where b.item.id in :itemIds and b.status <> :status and b.start > :now " +
+            "and b.start = (select min(n.start) from Booking n " +
+            "where n.item.id = b.item.id and n.status <> :status and n.start > :now)")
+    List<BookingShortView> findNextByItemIds(@Param("itemIds") Collection<Integer> itemIds,
+                                             @Param("now") LocalDateTime now,
+                                             @Param("status") BookingStatus excludedStatus);
 
-    List<Booking> findByBooker_IdAndStatus(Integer userId, BookingStatus bookingStatus, Sort sort);
+    @Query("select distinct b.item.id from Booking b")
+    List<Integer> findBookedItemIds();
 
-    List<Booking> findByBooker_IdAndStartIsBeforeAndEndIsAfter(Integer bookerId, LocalDateTime currentDateTime, LocalDateTime currentTime, Sort sort);
+    @Query("select distinct b.item.id from Booking b where b.booker.id = :userId or b.item.owner.id = :userId")
+    List<Integer> findItemIdsByParticipantId(@Param("userId") Integer userId);
 
-    List<Booking> findByItemOwnerId(Integer userId, Sort sort);
+    @Query("select new ru.practicum.shareit.booking.dto.BookingIntervalView(b.id, b.item.id, b.start, b.end, b.status) " +
+            "from Booking b " +
+            "where b.status in :statuses and b.end > :now")
+    List<BookingIntervalView> findIntervals(@Param("statuses") Collection<BookingStatus> statuses,
+                                            @Param("now") LocalDateTime now);
 
-    List<Booking> findByItemOwnerIdAndStartIsAfter(Integer itemOwnerId, LocalDateTime currentDateTime, Sort sort);
+    @Query("select new ru.practicum.shareit.booking.dto.BookingIntervalView(b.id, b.item.id, b.start, b.end, b.status) " +
+            "from Booking b " +
+            "where b.booker.id = :bookerId and b.status in :statuses and b.end > :now")
+    List<BookingIntervalView> findIntervalsByBookerId(@Param("bookerId") Integer bookerId,
+                                                      @Param("statuses") Collection<BookingStatus> statuses,
+                                                      @Param("now") LocalDateTime now);
 
-    List<Booking> findByItemOwnerIdAndEndIsBefore(Integer itemOwnerId, LocalDateTime currentDateTime, Sort sort);
+    @Query("select new ru.practicum.shareit.booking.dto.BookingIntervalView(b.id, b.item.id, b.start, b.end, b.status) " +
+            "from Booking b " +
+            "where b.item.id = :itemId and b.status in :statuses and b.end > :from " +
+            "order by b.start")
+    List<BookingIntervalView> findIntervalsByItemId(@Param("itemId") Integer itemId,
+                                                    @Param("statuses") Collection<BookingStatus> statuses,
+                                                    @Param("from") LocalDateTime from);
 
-    List<Booking> findByItemOwnerIdAndStatus(Integer itemOwnerId, BookingStatus bookingStatus, Sort sort);
+    @Query("select new ru.practicum.shareit.booking.dto.BookingApprovalView(b.id, b.item.id, i.owner.id, b.start, b.end, b.status) " +
+            "from Booking b join b.item i " +
+            "where b.id in :ids")
+    List<BookingApprovalView> findApprovalViews(@Param("ids") Collection<Integer> ids);
 
-    List<Booking> findByItemOwnerIdAndStartIsBeforeAndEndIsAfter(Integer itemOwnerId, LocalDateTime currentDateTime, LocalDateTime currentTime, Sort sort);
+    @Query("select new ru.practicum.shareit.booking.dto.BookingEtagView(b.id, i.owner.id, u.id, b.version, i.version, u.version) " +
+            "from Booking b join b.item i join b.booker u " +
+            "where b.id = :id")
+    Optional<BookingEtagView> findEtagView(@Param("id") Integer id);
 
-    List<Booking> findByItemIdAndStartIsAfterAndStatusNot(Integer itemId, LocalDateTime currentDateTime, BookingStatus status, Sort sort);
+    @Query("select b.id from Booking b where b.id in :ids and b.status = :status")
+    List<Integer> findIdsByIdInAndStatus(@Param("ids") Collection<Integer> ids, @Param("status") BookingStatus status);
 
-    List<Booking> findByItemIdAndStartIsBeforeAndStatusNot(Integer itemId, LocalDateTime currentDateTime, BookingStatus status, Sort sort);
-}
\ No newline at end of file
+    @Modifying
+    @Transactional
+    @Query("update Booking b set b.status = :status, b.version = b.version + 1 " +
+            "where b.id in :ids and b.status = :expectedStatus")
+    int updateStatus(@Param("ids") Collection<Integer> ids,
+                     @Param("expectedStatus") BookingStatus expectedStatus,
+                     @Param("status") BookingStatus status);
+
+    @Modifying
+    @Transactional
+    @Query("update Booking b set b.status = :status, b.version = b.version + 1 " +
+            "where b.id = :id and b.status = :expectedStatus")
+    int compareAndSetStatus(@Param("id") Integer id,
+                            @Param("expectedStatus") BookingStatus expectedStatus,
+                            @Param("status") BookingStatus status);
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.model.BookingParticipant;
+import ru.practicum.shareit.booking.model.BookingSearchMode;
+import ru.practicum.shareit.pagination.PageCursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface BookingViewRepository {
+    /**
+     * Bookings of the user ordered by start and id descending, read as flat rows without loading entities.
+     * Starts after {@code cursor} when it is given, otherwise skips {@code offset} rows; returns at most {@code limit} rows.
+     */
+    List<BookingView> findViews(BookingParticipant participant, Integer userId, BookingSearchMode mode,
+                                LocalDateTime now, PageCursor cursor, int offset, int limit);
+
+    /**
+     * All bookings of the user in the order of {@link #findViews}, fetched from the database in chunks of
+     * {@code fetchSize} rows as the stream is consumed. Must be consumed and closed inside a transaction.
+     */
+    Stream<BookingView> streamViews(BookingParticipant participant, Integer userId, BookingSearchMode mode,
+                                    LocalDateTime now, int fetchSize);
+}
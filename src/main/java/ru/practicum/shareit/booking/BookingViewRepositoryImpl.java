@@ -0,0 +1,77 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.model.BookingParticipant;
+import ru.practicum.shareit.booking.model.BookingSearchMode;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.pagination.PageCursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class BookingViewRepositoryImpl implements BookingViewRepository {
+    private static final String SELECT = "select new ru.practicum.shareit.booking.dto.BookingView(" +
+            "b.id, b.start, b.end, b.status, i.id, i.name, i.description, i.available, i.requestId, " +
+            "u.id, u.name, u.email) " +
+            "from Booking b join b.item i join b.booker u ";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingView> findViews(BookingParticipant participant, Integer userId, BookingSearchMode mode,
+                                       LocalDateTime now, PageCursor cursor, int offset, int limit) {
+        return createQuery(participant, userId, mode, now, cursor)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Rows are constructor results rather than entities, so the persistence context does not grow with the stream.
+     */
+    @Override
+    public Stream<BookingView> streamViews(BookingParticipant participant, Integer userId, BookingSearchMode mode,
+                                           LocalDateTime now, int fetchSize) {
+        return createQuery(participant, userId, mode, now, null)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private TypedQuery<BookingView> createQuery(BookingParticipant participant, Integer userId, BookingSearchMode mode,
+                                                LocalDateTime now, PageCursor cursor) {
+        StringBuilder jpql = new StringBuilder(SELECT)
+                .append(participant == BookingParticipant.OWNER ? "where i.owner.id = :userId" : "where u.id = :userId");
+        switch (mode) {
+            case CURRENT -> jpql.append(" and b.start < :now and b.end > :now");
+            case PAST -> jpql.append(" and b.end < :now");
+            case FUTURE -> jpql.append(" and b.start > :now");
+            case WAITING, REJECTED -> jpql.append(" and b.status = :status");
+            default -> {
+            }
+        }
+        if (cursor != null) {
+            jpql.append(" and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId))");
+        }
+        jpql.append(" order by b.start desc, b.id desc");
+
+        TypedQuery<BookingView> query = entityManager.createQuery(jpql.toString(), BookingView.class)
+                .setParameter("userId", userId);
+        switch (mode) {
+            case CURRENT, PAST, FUTURE -> query.setParameter("now", now);
+            case WAITING, REJECTED -> query.setParameter("status", BookingStatus.valueOf(mode.name()));
+            default -> {
+            }
+        }
+        if (cursor != null) {
+            query.setParameter("cursorStart", cursor.getStart()).setParameter("cursorId", cursor.getId());
+        }
+        return query;
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingApprovalDtoInput {
+    public static final int MAX_BOOKINGS = 1000;
+
+    @NotEmpty
+    @Size(max = MAX_BOOKINGS)
+    private List<@NotNull Integer> bookingIds;
+
+    @NotNull
+    private Boolean approved;
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.model.BookingApprovalOutcome;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingApprovalDtoOutput {
+    private Integer bookingId;
+    private BookingApprovalOutcome outcome;
+}
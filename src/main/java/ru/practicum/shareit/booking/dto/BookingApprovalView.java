@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingApprovalView {
+    private Integer id;
+    private Integer itemId;
+    private Integer ownerId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private BookingStatus status;
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingEtagView {
+    private Integer id;
+    private Integer ownerId;
+    private Integer bookerId;
+    private Integer version;
+    private Integer itemVersion;
+    private Integer bookerVersion;
+}
@@ -14,6 +14,16 @@ public interface BookingMapper {
 
     BookingDtoOutput toBookingDtoOutput(Booking booking);
 
+    @Mapping(target = "item.id", source = "itemId")
+    @Mapping(target = "item.name", source = "itemName")
+    @Mapping(target = "item.description", source = "itemDescription")
+    @Mapping(target = "item.available", source = "itemAvailable")
+    @Mapping(target = "item.requestId", source = "itemRequestId")
+    @Mapping(target = "booker.id", source = "bookerId")
+    @Mapping(target = "booker.name", source = "bookerName")
+    @Mapping(target = "booker.email", source = "bookerEmail")
+    BookingDtoOutput toBookingDtoOutput(BookingView bookingView);
+
     @Mapping(target = "bookerId", source = "booking.booker.id")
     BookingDtoShortOutput toBookingDtoShortOutput(Booking booking);
 }
\ No newline at end of file
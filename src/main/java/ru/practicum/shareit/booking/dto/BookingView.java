@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingView {
+    private Integer id;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private BookingStatus status;
+    private Integer itemId;
+    private String itemName;
+    private String itemDescription;
+    private Boolean itemAvailable;
+    private Integer itemRequestId;
+    private Integer bookerId;
+    private String bookerName;
+    private String bookerEmail;
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Collection;
+
+/**
+ * Published inside the transaction that created, approved, rejected or deleted bookings of the given items.
+ */
+@Data
+@AllArgsConstructor
+public class BookingChangedEvent {
+    private Collection<Integer> itemIds;
+}
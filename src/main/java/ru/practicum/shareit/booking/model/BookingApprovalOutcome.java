@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.model;
+
+public enum BookingApprovalOutcome {
+    APPROVED,
+    REJECTED,
+    NOT_FOUND,
+    FORBIDDEN,
+    NOT_WAITING,
+    CONFLICT
+}
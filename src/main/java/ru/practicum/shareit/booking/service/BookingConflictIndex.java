@@ -0,0 +1,203 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.datasource.DataSourceRouting;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory timeline of WAITING and APPROVED bookings per item that have not ended yet.
+ * Checks and updates for an item must run under {@link #lockItems} or {@link #withItemLock}; items are striped over
+ * a fixed set of locks, so bookings of unrelated items proceed in parallel.
+ */
+@Component
+public class BookingConflictIndex implements SmartInitializingSingleton {
+    public static final Set<BookingStatus> ACTIVE_STATUSES = EnumSet.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+    private static final int LOCK_STRIPES = 64;
+
+    private final BookingRepository bookingRepository;
+    private final Lock[] locks = new Lock[LOCK_STRIPES];
+    private final Map<Integer, ItemTimeline> timelines = new ConcurrentHashMap<>();
+
+    public BookingConflictIndex(BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        DataSourceRouting.onPrimary(this::rebuild);
+    }
+
+    public void rebuild() {
+        timelines.clear();
+        bookingRepository.findIntervals(ACTIVE_STATUSES, LocalDateTime.now()).forEach(this::put);
+    }
+
+    public <T> T withItemLock(Integer itemId, Supplier<T> action) {
+        Lock lock = locks[stripe(itemId)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Locks the given items until the current transaction completes, so that a conflict check and the commit
+     * of the change it guards happen under the same lock. Stripes are taken in ascending order to avoid deadlocks.
+     */
+    public void lockItems(Collection<Integer> itemIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Item locks require an active transaction");
+        }
+        int[] stripes = itemIds.stream().mapToInt(this::stripe).distinct().sorted().toArray();
+        int locked = 0;
+        try {
+            for (int stripe : stripes) {
+                locks[stripe].lock();
+                locked++;
+            }
+        } catch (RuntimeException exception) {
+            unlock(stripes, locked);
+            throw exception;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                unlock(stripes, stripes.length);
+            }
+        });
+    }
+
+    /**
+     * Applies the booking to the index once the current transaction commits; before {@link #lockItems} releases its locks.
+     */
+    public void putAfterCommit(BookingIntervalView booking) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(booking);
+            }
+        });
+    }
+
+    /**
+     * Whether [start, end) intersects a booking of the item in one of the given statuses,
+     * ignoring the booking {@code excludedBookingId}.
+     */
+    public boolean hasConflict(Integer itemId, LocalDateTime start, LocalDateTime end,
+                               Integer excludedBookingId, Set<BookingStatus> statuses) {
+        ItemTimeline timeline = timelines.get(itemId);
+        return timeline != null && timeline.hasConflict(start, end, excludedBookingId, statuses);
+    }
+
+    public void put(BookingIntervalView booking) {
+        if (!ACTIVE_STATUSES.contains(booking.getStatus())) {
+            remove(booking.getItemId(), booking.getId());
+            return;
+        }
+        timelines.computeIfAbsent(booking.getItemId(), itemId -> new ItemTimeline()).put(booking);
+    }
+
+    public void remove(Integer itemId, Integer bookingId) {
+        ItemTimeline timeline = timelines.get(itemId);
+        if (timeline != null) {
+            timeline.remove(bookingId);
+        }
+    }
+
+    public void removeBooker(Integer bookerId) {
+        for (BookingIntervalView booking : bookingRepository.findIntervalsByBookerId(bookerId, ACTIVE_STATUSES, LocalDateTime.now())) {
+            withItemLock(booking.getItemId(), () -> {
+                remove(booking.getItemId(), booking.getId());
+                return null;
+            });
+        }
+    }
+
+    private void unlock(int[] stripes, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            locks[stripes[i]].unlock();
+        }
+    }
+
+    private int stripe(Integer itemId) {
+        return Math.floorMod(itemId.hashCode(), LOCK_STRIPES);
+    }
+
+    private static final class ItemTimeline {
+        private final NavigableSet<BookingIntervalView> byStart = new TreeSet<>(
+                Comparator.comparing(BookingIntervalView::getStart).thenComparing(BookingIntervalView::getId));
+        private final Map<Integer, BookingIntervalView> byId = new HashMap<>();
+        private Duration maxDuration = Duration.ZERO;
+
+        void put(BookingIntervalView booking) {
+            remove(booking.getId());
+            byStart.add(booking);
+            byId.put(booking.getId(), booking);
+            Duration duration = Duration.between(booking.getStart(), booking.getEnd());
+            if (duration.compareTo(maxDuration) > 0) {
+                maxDuration = duration;
+            }
+        }
+
+        void remove(Integer bookingId) {
+            BookingIntervalView booking = byId.remove(bookingId);
+            if (booking != null) {
+                byStart.remove(booking);
+            }
+        }
+
+        boolean hasConflict(LocalDateTime start, LocalDateTime end, Integer excludedBookingId, Set<BookingStatus> statuses) {
+            pruneEnded(LocalDateTime.now());
+            BookingIntervalView probe = new BookingIntervalView(Integer.MIN_VALUE, null, end, end, null);
+            for (BookingIntervalView booking : byStart.headSet(probe, false).descendingSet()) {
+                if (!booking.getStart().plus(maxDuration).isAfter(start)) {
+                    return false;
+                }
+                if (!booking.getId().equals(excludedBookingId)
+                        && statuses.contains(booking.getStatus())
+                        && booking.getEnd().isAfter(start)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void pruneEnded(LocalDateTime now) {
+            Iterator<BookingIntervalView> iterator = byStart.iterator();
+            while (iterator.hasNext()) {
+                BookingIntervalView booking = iterator.next();
+                if (booking.getStart().plus(maxDuration).isAfter(now)) {
+                    return;
+                }
+                iterator.remove();
+                byId.remove(booking.getId());
+            }
+        }
+    }
+}
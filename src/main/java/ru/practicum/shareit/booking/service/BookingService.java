@@ -1,18 +1,34 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingApprovalDtoOutput;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.model.BookingParticipant;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.PageParams;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface BookingService {
     BookingDtoOutput add(Integer userId, BookingDtoInput bookingDtoInput);
 
     BookingDtoOutput setApprove(Integer bookingId, Integer userId, Boolean isApproved);
 
+    List<BookingApprovalDtoOutput> setApproveAll(List<Integer> bookingIds, Integer userId, Boolean isApproved);
+
     BookingDtoOutput get(Integer bookingId, Integer userId);
 
-    List<BookingDtoOutput> getAll(String bookingStatus, Integer userId);
+    Optional<String> getEtag(Integer bookingId, Integer userId);
+
+    CursorPage<BookingDtoOutput> getAll(String bookingStatus, Integer userId, PageParams page);
+
+    CursorPage<BookingDtoOutput> getAllByOwner(String bookingStatus, Integer userId, PageParams page);
 
-    List<BookingDtoOutput> getAllByOwner(String bookingStatus, Integer userId);
+    /**
+     * Checks the request right away and returns every booking of the user, in the order of {@link #getAll}.
+     * The bookings are read in a transaction of their own while being consumed, so the whole history is never
+     * held in memory and the stream may be consumed on another thread.
+     */
+    BookingStream streamAll(BookingParticipant participant, String bookingStatus, Integer userId);
 }
\ No newline at end of file
@@ -1,42 +1,75 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Sort;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingApprovalDtoOutput;
+import ru.practicum.shareit.booking.dto.BookingApprovalView;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingApprovalOutcome;
+import ru.practicum.shareit.booking.model.BookingParticipant;
 import ru.practicum.shareit.booking.model.BookingSearchMode;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.cache.EntityCache;
+import ru.practicum.shareit.datasource.DataSourceRouting;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.item.repository.ItemRepository;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.outbox.Outbox;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.PageCursor;
+import ru.practicum.shareit.pagination.PageParams;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
+    private static final int STREAM_FETCH_SIZE = 500;
+
     private final BookingRepository bookingRepository;
     private final BookingMapper bookingMapper;
-    private final UserRepository userRepository;
-    private final ItemRepository itemRepository;
+    private final EntityCache<User> userCache;
+    private final EntityCache<Item> itemCache;
+    private final BookingConflictIndex bookingConflictIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Outbox outbox;
+    private final PlatformTransactionManager transactionManager;
 
     @Override
+    @Transactional
     public BookingDtoOutput add(Integer bookerId, BookingDtoInput bookingDtoInput) {
         validateBookingDtoInput(bookingDtoInput);
         validateUser(bookerId);
         validateItem(bookingDtoInput.getItemId());
 
-        Optional<Item> optionalItem = itemRepository.findById(bookingDtoInput.getItemId());
+        Optional<Item> optionalItem = itemCache.find(bookingDtoInput.getItemId());
         if (optionalItem.isEmpty()) {
             throw new NotFoundException("Не удалось получить товар.");
         }
@@ -50,15 +83,24 @@ public class BookingServiceImpl implements BookingService {
         }
 
         Booking booking = bookingMapper.toBooking(bookingDtoInput);
-        booking.setBooker(userRepository.findById(bookerId).get());
+        booking.setBooker(userCache.find(bookerId).get());
         booking.setStatus(BookingStatus.WAITING);
         booking.setItem(item);
 
-        booking = bookingRepository.save(booking);
-        return bookingMapper.toBookingDtoOutput(booking);
+        bookingConflictIndex.lockItems(List.of(item.getId()));
+        if (bookingConflictIndex.hasConflict(item.getId(), booking.getStart(), booking.getEnd(), null,
+                BookingConflictIndex.ACTIVE_STATUSES)) {
+            throw new BookingConflictException("Предмет уже забронирован на это время.");
+        }
+        Booking saved = bookingRepository.save(booking);
+        bookingConflictIndex.putAfterCommit(toIntervalView(saved));
+        eventPublisher.publishEvent(new BookingChangedEvent(List.of(item.getId())));
+        outbox.record(OutboxEventType.BOOKING_CREATED, saved.getId());
+        return bookingMapper.toBookingDtoOutput(saved);
     }
 
     @Override
+    @Transactional
     public BookingDtoOutput setApprove(Integer bookingId, Integer userId, Boolean isApproved) {
         validateBooking(bookingId);
 
@@ -78,14 +120,122 @@ public class BookingServiceImpl implements BookingService {
             throw new UnavailableItemBookingException("Статус должен быть 'WAITING'.");
         }
 
-        if (isApproved) {
-            booking.setStatus(BookingStatus.APPROVED);
-        } else {
-            booking.setStatus(BookingStatus.REJECTED);
+        Integer itemId = booking.getItem().getId();
+        bookingConflictIndex.lockItems(List.of(itemId));
+        if (isApproved && bookingConflictIndex.hasConflict(itemId, booking.getStart(), booking.getEnd(), booking.getId(),
+                EnumSet.of(BookingStatus.APPROVED))) {
+            throw new BookingConflictException("Предмет уже забронирован на это время другим подтверждённым бронированием.");
+        }
+        BookingStatus newStatus = isApproved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        if (bookingRepository.compareAndSetStatus(bookingId, BookingStatus.WAITING, newStatus) == 0) {
+            throw new UnavailableItemBookingException("Статус должен быть 'WAITING'.");
         }
 
-        booking = bookingRepository.save(booking);
-        return bookingMapper.toBookingDtoOutput(booking);
+        BookingDtoOutput bookingDtoOutput = bookingMapper.toBookingDtoOutput(booking);
+        bookingDtoOutput.setStatus(newStatus);
+        bookingConflictIndex.putAfterCommit(new BookingIntervalView(bookingId, itemId, booking.getStart(), booking.getEnd(), newStatus));
+        eventPublisher.publishEvent(new BookingChangedEvent(List.of(itemId)));
+        outbox.record(isApproved ? OutboxEventType.BOOKING_APPROVED : OutboxEventType.BOOKING_REJECTED, bookingId);
+        return bookingDtoOutput;
+    }
+
+    @Override
+    @Transactional
+    public List<BookingApprovalDtoOutput> setApproveAll(List<Integer> bookingIds, Integer userId, Boolean isApproved) {
+        validateUser(userId);
+
+        Set<Integer> requestedIds = new LinkedHashSet<>(bookingIds);
+        Map<Integer, BookingApprovalView> bookings = bookingRepository.findApprovalViews(requestedIds).stream()
+                .collect(Collectors.toMap(BookingApprovalView::getId, Function.identity()));
+
+        Map<Integer, BookingApprovalOutcome> outcomes = new HashMap<>();
+        List<BookingApprovalView> candidates = new ArrayList<>();
+        for (Integer bookingId : requestedIds) {
+            BookingApprovalView booking = bookings.get(bookingId);
+            if (booking == null) {
+                outcomes.put(bookingId, BookingApprovalOutcome.NOT_FOUND);
+            } else if (!Objects.equals(userId, booking.getOwnerId())) {
+                outcomes.put(bookingId, BookingApprovalOutcome.FORBIDDEN);
+            } else if (booking.getStatus() != BookingStatus.WAITING) {
+                outcomes.put(bookingId, BookingApprovalOutcome.NOT_WAITING);
+            } else {
+                candidates.add(booking);
+            }
+        }
+
+        if (!candidates.isEmpty()) {
+            Set<Integer> itemIds = candidates.stream().map(BookingApprovalView::getItemId).collect(Collectors.toSet());
+            bookingConflictIndex.lockItems(itemIds);
+            applyApprovals(candidates, isApproved, outcomes);
+        }
+
+        return requestedIds.stream()
+                .map(bookingId -> new BookingApprovalDtoOutput(bookingId, outcomes.get(bookingId)))
+                .collect(Collectors.toList());
+    }
+
+    private void applyApprovals(List<BookingApprovalView> candidates, boolean isApproved,
+                                Map<Integer, BookingApprovalOutcome> outcomes) {
+        Set<Integer> stillWaiting = new HashSet<>(bookingRepository.findIdsByIdInAndStatus(
+                candidates.stream().map(BookingApprovalView::getId).toList(), BookingStatus.WAITING));
+
+        BookingStatus newStatus = isApproved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        List<BookingApprovalView> accepted = new ArrayList<>();
+        candidates.sort(Comparator.comparing(BookingApprovalView::getStart).thenComparing(BookingApprovalView::getId));
+        for (BookingApprovalView booking : candidates) {
+            if (!stillWaiting.contains(booking.getId())) {
+                outcomes.put(booking.getId(), BookingApprovalOutcome.NOT_WAITING);
+            } else if (isApproved && (bookingConflictIndex.hasConflict(booking.getItemId(), booking.getStart(), booking.getEnd(),
+                    booking.getId(), EnumSet.of(BookingStatus.APPROVED)) || overlapsAny(booking, accepted))) {
+                outcomes.put(booking.getId(), BookingApprovalOutcome.CONFLICT);
+            } else {
+                accepted.add(booking);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        List<Integer> acceptedIds = accepted.stream().map(BookingApprovalView::getId).toList();
+        if (bookingRepository.updateStatus(acceptedIds, BookingStatus.WAITING, newStatus) != accepted.size()) {
+            dropDecidedElsewhere(accepted, newStatus, outcomes);
+            if (accepted.isEmpty()) {
+                return;
+            }
+        }
+        for (BookingApprovalView booking : accepted) {
+            outcomes.put(booking.getId(), isApproved ? BookingApprovalOutcome.APPROVED : BookingApprovalOutcome.REJECTED);
+            bookingConflictIndex.putAfterCommit(new BookingIntervalView(booking.getId(), booking.getItemId(),
+                    booking.getStart(), booking.getEnd(), newStatus));
+        }
+        eventPublisher.publishEvent(new BookingChangedEvent(
+                accepted.stream().map(BookingApprovalView::getItemId).collect(Collectors.toSet())));
+        outbox.recordAll(isApproved ? OutboxEventType.BOOKING_APPROVED : OutboxEventType.BOOKING_REJECTED,
+                accepted.stream().map(BookingApprovalView::getId).toList());
+    }
+
+    /**
+     * Rows decided by another writer between the status read and the update were skipped by the update; they are the
+     * accepted bookings that do not carry the new status now. A concurrent decision to the same status cannot be told
+     * apart and is reported as this one, which leaves the booking in the requested state either way.
+     */
+    private void dropDecidedElsewhere(List<BookingApprovalView> accepted, BookingStatus newStatus,
+                                      Map<Integer, BookingApprovalOutcome> outcomes) {
+        Set<Integer> updated = new HashSet<>(bookingRepository.findIdsByIdInAndStatus(
+                accepted.stream().map(BookingApprovalView::getId).toList(), newStatus));
+        accepted.removeIf(booking -> {
+            if (updated.contains(booking.getId())) {
+                return false;
+            }
+            outcomes.put(booking.getId(), BookingApprovalOutcome.NOT_WAITING);
+            return true;
+        });
+    }
+
+    private boolean overlapsAny(BookingApprovalView booking, List<BookingApprovalView> accepted) {
+        return accepted.stream().anyMatch(other -> other.getItemId().equals(booking.getItemId())
+                && other.getStart().isBefore(booking.getEnd())
+                && booking.getStart().isBefore(other.getEnd()));
     }
 
     @Override
@@ -109,18 +259,27 @@ public class BookingServiceImpl implements BookingService {
         return bookingMapper.toBookingDtoOutput(booking);
     }
 
+    /**
+     * Versions of the booking, its item and booker; empty for users who may not see the booking.
+     */
+    @Override
+    public Optional<String> getEtag(Integer bookingId, Integer userId) {
+        return bookingRepository.findEtagView(bookingId)
+                .filter(view -> userId.equals(view.getOwnerId()) || userId.equals(view.getBookerId()))
+                .map(view -> "booking-" + view.getId() + "-" + view.getVersion()
+                        + "-" + view.getItemVersion() + "-" + view.getBookerVersion());
+    }
+
     @Override
-    public List<BookingDtoOutput> getAll(String bookingSearchMode, Integer userId) {
+    public CursorPage<BookingDtoOutput> getAll(String bookingSearchMode, Integer userId, PageParams page) {
         validateUser(userId);
-        Sort sort = Sort.by("start").descending();
+        PageCursor cursor = page.cursor(true);
 
-        Optional<User> optionalUser = userRepository.findById(userId);
+        Optional<User> optionalUser = userCache.find(userId);
         if (optionalUser.isEmpty()) {
             throw new NotFoundException("Пользователь с id " + userId + " не найден.");
         }
 
-        LocalDateTime currentDateTime = LocalDateTime.now();
-        LocalDateTime currentTime = LocalDateTime.now();
         BookingSearchMode searchMode;
 
         try {
@@ -128,49 +287,20 @@ public class BookingServiceImpl implements BookingService {
         } catch (IllegalArgumentException exception) {
             throw new IllegalSearchModeException("Неизвестный параметр " + bookingSearchMode);
         }
-        switch (searchMode) {
-            case ALL:
-                return bookingRepository.findByBooker_Id(userId, sort).stream()
-                        .map(bookingMapper::toBookingDtoOutput)
-                        .collect(Collectors.toList());
-            case CURRENT:
-                return bookingRepository.findByBooker_IdAndStartIsBeforeAndEndIsAfter(userId, currentDateTime, currentTime, sort).stream()
-                        .map(bookingMapper::toBookingDtoOutput)
-                        .collect(Collectors.toList());
-            case PAST:
-                return bookingRepository.findByBooker_IdAndEndIsBefore(userId, currentDateTime, sort).stream()
-                        .map(bookingMapper::toBookingDtoOutput)
-                        .collect(Collectors.toList());
-            case FUTURE:
-                return bookingRepository.findByBooker_IdAndStartIsAfter(userId, currentDateTime, sort).stream()
-                        .map(bookingMapper::toBookingDtoOutput)
-                        .collect(Collectors.toList());
-            case WAITING:
-                return bookingRepository.findByBooker_IdAndStatus(userId, BookingStatus.WAITING, sort).stream()
-                        .map(bookingMapper::toBookingDtoOutput)
-                        .collect(Collectors.toList());
-            case REJECTED:
-                return bookingRepository.findByBooker_IdAndStatus(userId, BookingStatus.REJECTED, sort).stream()
-                        .map(bookingMapper::toBookingDtoOutput)
-                        .collect(Collectors.toList());
-            default:
-                throw new IllegalSearchModeException("Неизвестный параметр " + bookingSearchMode);
-        }
+        return toPage(bookingRepository.findViews(BookingParticipant.BOOKER, userId, searchMode, LocalDateTime.now(),
+                cursor, page.offset(), page.getSize() + 1), page.getSize());
     }
 
     @Override
-    public List<BookingDtoOutput> getAllByOwner(String bookingSearchMode, Integer userId) {
+    public CursorPage<BookingDtoOutput> getAllByOwner(String bookingSearchMode, Integer userId, PageParams page) {
         validateUser(userId);
-        Sort sort = Sort.by("start").descending();
+        PageCursor cursor = page.cursor(true);
 
-        Optional<User> optionalUser = userRepository.findById(userId);
+        Optional<User> optionalUser = userCache.find(userId);
         if (optionalUser.isEmpty()) {
             throw new NotFoundException("Пользователь  с id " + userId + " не найден.");
         }
 
-        LocalDateTime currentDateTime = LocalDateTime.now();
-        LocalDateTime dateTime = LocalDateTime.now();
-
         BookingSearchMode searchModeForOwners;
 
         try {
@@ -178,35 +308,56 @@ public class BookingServiceImpl implements BookingService {
         } catch (IllegalArgumentException exception) {
             throw new IllegalSearchModeException("Неизвестный параметр " + bookingSearchMode);
         }
+        return toPage(bookingRepository.findViews(BookingParticipant.OWNER, userId, searchModeForOwners, LocalDateTime.now(),
+                cursor, page.offset(), page.getSize() + 1), page.getSize());
+    }
+
+    @Override
+    public BookingStream streamAll(BookingParticipant participant, String bookingSearchMode, Integer userId) {
+        validateUser(userId);
 
-        switch (searchModeForOwners) {
-            case ALL:
-                return bookingRepository.findByItemOwnerId(userId, sort).stream()
-                        .map(bookingMapper::toBookingDtoOutput)
-                        .collect(Collectors.toList());
-            case CURRENT:
-                return bookingRepository.findByItemOwnerIdAndStartIsBeforeAndEndIsAfter(userId, currentDateTime, dateTime, sort).stream()
-                        .map(bookingMapper::toBookingDtoOutput)
-                        .collect(Collectors.toList());
-            case PAST:
-                return bookingRepository.findByItemOwnerIdAndEndIsBefore(userId, currentDateTime, sort).stream()
-                        .map(bookingMapper::toBookingDtoOutput)
-                        .collect(Collectors.toList());
-            case FUTURE:
-                return bookingRepository.findByItemOwnerIdAndStartIsAfter(userId, currentDateTime, sort).stream()
-                        .map(bookingMapper::toBookingDtoOutput)
-                        .collect(Collectors.toList());
-            case WAITING:
-                return bookingRepository.findByItemOwnerIdAndStatus(userId, BookingStatus.WAITING, sort).stream()
-                        .map(bookingMapper::toBookingDtoOutput)
-                        .collect(Collectors.toList());
-            case REJECTED:
-                return bookingRepository.findByItemOwnerIdAndStatus(userId, BookingStatus.REJECTED, sort).stream()
-                        .map(bookingMapper::toBookingDtoOutput)
-                        .collect(Collectors.toList());
-            default:
-                throw new IllegalSearchModeException("Неизвестный параметр " + bookingSearchMode);
+        BookingSearchMode searchMode;
+
+        try {
+            searchMode = BookingSearchMode.valueOf(bookingSearchMode.toUpperCase());
+        } catch (IllegalArgumentException exception) {
+            throw new IllegalSearchModeException("Неизвестный параметр " + bookingSearchMode);
         }
+        LocalDateTime now = LocalDateTime.now();
+        // the body is read on another thread, which does not see the read-your-writes override of this one
+        boolean primaryForced = DataSourceRouting.isPrimaryForced();
+        return action -> {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setReadOnly(true);
+            Runnable read = () -> transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<BookingView> rows = bookingRepository.streamViews(participant, userId, searchMode, now,
+                        STREAM_FETCH_SIZE)) {
+                    rows.map(bookingMapper::toBookingDtoOutput).forEach(action);
+                }
+            });
+            if (primaryForced) {
+                DataSourceRouting.onPrimary(read);
+            } else {
+                read.run();
+            }
+        };
+    }
+
+    private CursorPage<BookingDtoOutput> toPage(List<BookingView> rows, int size) {
+        List<BookingView> pageRows = rows.size() > size ? rows.subList(0, size) : rows;
+        List<BookingDtoOutput> content = pageRows.stream()
+                .map(bookingMapper::toBookingDtoOutput)
+                .collect(Collectors.toList());
+        String nextCursor = null;
+        if (rows.size() > size && !pageRows.isEmpty()) {
+            BookingView last = pageRows.get(pageRows.size() - 1);
+            nextCursor = PageCursor.of(last.getStart(), last.getId()).encode();
+        }
+        return new CursorPage<>(content, nextCursor);
+    }
+
+    private BookingIntervalView toIntervalView(Booking booking) {
+        return new BookingIntervalView(booking.getId(), booking.getItem().getId(), booking.getStart(), booking.getEnd(), booking.getStatus());
     }
 
     private void validateBookingDtoInput(BookingDtoInput bookingDtoInput) {
@@ -222,13 +373,13 @@ public class BookingServiceImpl implements BookingService {
     }
 
     private void validateUser(Integer userId) {
-        if (!userRepository.existsById(userId)) {
+        if (!userCache.exists(userId)) {
             throw new NotFoundException("Пользователь с id = " + userId + " не существует.");
         }
     }
 
     private void validateItem(Integer itemId) {
-        if (!itemRepository.existsById(itemId)) {
+        if (!itemCache.exists(itemId)) {
             throw new NotFoundException("Предмет с id " + itemId + " не существует.");
         }
     }
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+
+import java.util.function.Consumer;
+
+/**
+ * Bookings of an already validated request, read only when {@link #forEach} is called.
+ */
+@FunctionalInterface
+public interface BookingStream {
+    void forEach(Consumer<BookingDtoOutput> action);
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.cache;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers changes of in-memory copies (entity caches, search indexes) until the database change they mirror has
+ * committed, so that a rolled-back write never becomes visible through them.
+ */
+public final class AfterCommit {
+    private AfterCommit() {
+    }
+
+    /**
+     * Runs the action after the current transaction commits, or right away when no transaction is active.
+     */
+    public static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded read-through cache of entity snapshots by id. Missing ids are never cached.
+ * Snapshots are shared between callers and must not be modified; load the entity from
+ * the repository when it is going to be changed and {@link #putAfterCommit} the saved copy back.
+ * Loaded and put values are copied by {@code snapshot} first, so the cache never holds an instance that belongs to
+ * a persistence context, where a later change in the same transaction would show through before commit.
+ */
+public class EntityCache<T> {
+    private final Cache<Integer, T> cache;
+    private final Function<Integer, Optional<T>> loader;
+    private final UnaryOperator<T> snapshot;
+
+    public EntityCache(Cache<Integer, T> cache, Function<Integer, Optional<T>> loader) {
+        this(cache, loader, UnaryOperator.identity());
+    }
+
+    public EntityCache(Cache<Integer, T> cache, Function<Integer, Optional<T>> loader, UnaryOperator<T> snapshot) {
+        this.cache = cache;
+        this.loader = loader;
+        this.snapshot = snapshot;
+    }
+
+    public Optional<T> find(Integer id) {
+        return Optional.ofNullable(cache.get(id, key -> loader.apply(key).map(snapshot).orElse(null)));
+    }
+
+    public boolean exists(Integer id) {
+        return find(id).isPresent();
+    }
+
+    public void put(Integer id, T value) {
+        cache.put(id, snapshot.apply(value));
+    }
+
+    /**
+     * Puts the saved snapshot once the current transaction commits.
+     */
+    public void putAfterCommit(Integer id, T value) {
+        AfterCommit.run(() -> put(id, value));
+    }
+
+    public void evict(Integer id) {
+        cache.invalidate(id);
+    }
+
+    public void evictIf(Predicate<T> predicate) {
+        cache.asMap().values().removeIf(predicate);
+    }
+}
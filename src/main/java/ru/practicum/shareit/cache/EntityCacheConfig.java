@@ -0,0 +1,50 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+@Configuration
+@EnableConfigurationProperties(EntityCacheProperties.class)
+public class EntityCacheConfig {
+
+    @Bean
+    public EntityCache<User> userCache(UserRepository userRepository, EntityCacheProperties properties,
+                                       MeterRegistry meterRegistry) {
+        return new EntityCache<>(buildCache("users", properties, meterRegistry), userRepository::findById,
+                EntityCacheConfig::copy);
+    }
+
+    @Bean
+    public EntityCache<Item> itemCache(ItemRepository itemRepository, EntityCacheProperties properties,
+                                       MeterRegistry meterRegistry) {
+        return new EntityCache<>(buildCache("items", properties, meterRegistry), itemRepository::findById,
+                EntityCacheConfig::copy);
+    }
+
+    private static User copy(User user) {
+        return new User(user.getId(), user.getName(), user.getEmail(), user.getVersion());
+    }
+
+    private static Item copy(Item item) {
+        return new Item(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                item.getOwner() == null ? null : copy(item.getOwner()), item.getRequestId(), item.getVersion());
+    }
+
+    private <T> Cache<Integer, T> buildCache(String name, EntityCacheProperties properties, MeterRegistry meterRegistry) {
+        Cache<Integer, T> cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.cache")
+public class EntityCacheProperties {
+    private long maxSize = 10_000;
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+}
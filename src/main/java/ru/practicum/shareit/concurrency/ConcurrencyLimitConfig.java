@@ -0,0 +1,55 @@
+package ru.practicum.shareit.concurrency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * The filter is always registered, so requests in flight are counted in every profile; it limits them only with
+ * {@code shareit.concurrency.enabled}, which the {@code virtual-threads} profile turns on.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class ConcurrencyLimitConfig {
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            ConcurrencyLimitProperties properties, ParallelReadProperties parallelReadProperties,
+            MeterRegistry meterRegistry,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${shareit.datasource.replica.url:}") String replicaUrl,
+            @Value("${shareit.datasource.replica.maximum-pool-size:10}") int replicaPoolSize) {
+        if (!properties.isEnabled()) {
+            return registration(new ConcurrencyLimitFilter(0, properties.getAcquireTimeout(), meterRegistry));
+        }
+        int connections = requestConnections(poolSize, replicaUrl.isEmpty() ? 0 : replicaPoolSize,
+                parallelReadProperties.getThreads());
+        int maxInFlight = properties.getMaxInFlight() > 0
+                ? properties.getMaxInFlight()
+                : properties.getRequestsPerConnection() * connections;
+        log.info("Handling at most {} requests at once with {} of {} database connections", maxInFlight, connections,
+                poolSize + (replicaUrl.isEmpty() ? 0 : replicaPoolSize));
+
+        return registration(new ConcurrencyLimitFilter(maxInFlight, properties.getAcquireTimeout(), meterRegistry));
+    }
+
+    private static FilterRegistrationBean<ConcurrencyLimitFilter> registration(ConcurrencyLimitFilter filter) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 100);
+        return registration;
+    }
+
+    /**
+     * Connections left to request threads: read-only transactions may go to the replica pool, while up to one
+     * connection per {@link ParallelReads} thread is taken by branches running for requests already admitted.
+     */
+    static int requestConnections(int poolSize, int replicaPoolSize, int parallelReadThreads) {
+        return Math.max(1, poolSize + replicaPoolSize - parallelReadThreads);
+    }
+}
@@ -0,0 +1,146 @@
+package ru.practicum.shareit.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounds the number of requests handled at once. With virtual threads Tomcat no longer caps concurrency, so without
+ * it every request beyond the connection pool would start, then park in the pool until its connection timeout.
+ * Waiting here is cheaper and a request that cannot get a slot in time is answered with 503 right away.
+ * When the request goes async, as a streaming response does, the slot is held until the async request completes,
+ * times out or fails, since its body keeps reading from the database after the servlet dispatch returns.
+ * Actuator endpoints are not limited, so health checks keep answering under overload.
+ * With a limit of 0 requests are only counted, which is what load shedding in the rate limiter goes by.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    private static final String REJECTED_BODY = "{\"error\":\"Сервер перегружен, повторите запрос позже.\"}";
+
+    private final Semaphore slots;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final int maxInFlight;
+    private final long acquireTimeoutNanos;
+    private final String retryAfterSeconds;
+    private final Counter rejected;
+
+    /**
+     * @param maxInFlight requests handled at once, 0 to count them without a limit
+     */
+    public ConcurrencyLimitFilter(int maxInFlight, Duration acquireTimeout, MeterRegistry meterRegistry) {
+        this.slots = maxInFlight > 0 ? new Semaphore(maxInFlight, true) : null;
+        this.maxInFlight = maxInFlight;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.retryAfterSeconds = String.valueOf(Math.max(1, acquireTimeout.toSeconds()));
+        this.rejected = Counter.builder("shareit.concurrency.rejected")
+                .description("Requests rejected because no slot was freed in time")
+                .register(meterRegistry);
+        Gauge.builder("shareit.concurrency.in-flight", inFlight, AtomicInteger::get)
+                .description("Requests being handled")
+                .register(meterRegistry);
+        if (slots != null) {
+            Gauge.builder("shareit.concurrency.waiting", slots, Semaphore::getQueueLength)
+                    .description("Requests waiting for a slot")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Returns the limit, 0 when requests are only counted.
+     */
+    public int maxInFlight() {
+        return maxInFlight;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!acquire()) {
+            rejected.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getOutputStream().write(REJECTED_BODY.getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        inFlight.incrementAndGet();
+        AtomicBoolean held = new AtomicBoolean(true);
+        Runnable release = () -> {
+            if (held.compareAndSet(true, false)) {
+                inFlight.decrementAndGet();
+                if (slots != null) {
+                    slots.release();
+                }
+            }
+        };
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasingListener(release));
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    private boolean acquire() {
+        if (slots == null) {
+            return true;
+        }
+        try {
+            return slots.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private record ReleasingListener(Runnable release) implements AsyncListener {
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
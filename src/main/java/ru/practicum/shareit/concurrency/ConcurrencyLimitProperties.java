@@ -0,0 +1,22 @@
+package ru.practicum.shareit.concurrency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.concurrency")
+public class ConcurrencyLimitProperties {
+    private boolean enabled = false;
+    /**
+     * Requests handled at once, 0 for {@code requests-per-connection} times the connections of the primary and replica
+     * pools that are not reserved for the parallel read threads.
+     */
+    private int maxInFlight = 0;
+    private int requestsPerConnection = 2;
+    /**
+     * How long a request waits for a slot before it is rejected with 503; keep it below the pool's connection timeout.
+     */
+    private Duration acquireTimeout = Duration.ofSeconds(1);
+}
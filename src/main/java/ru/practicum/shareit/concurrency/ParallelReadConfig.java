@@ -0,0 +1,24 @@
+package ru.practicum.shareit.concurrency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * The pool of {@link ParallelReads} is not exposed as an executor bean, which would replace the application task
+ * executor that MVC async requests run on.
+ */
+@Configuration
+@EnableConfigurationProperties(ParallelReadProperties.class)
+public class ParallelReadConfig {
+    @Bean(destroyMethod = "close")
+    public ParallelReads parallelReads(ParallelReadProperties properties, PlatformTransactionManager transactionManager,
+                                       MeterRegistry meterRegistry) {
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        return new ParallelReads(properties, readOnlyTransaction, meterRegistry);
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.concurrency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.parallel-reads")
+public class ParallelReadProperties {
+    /**
+     * Threads running branches for all requests together; each branch holds a database connection while it runs.
+     */
+    private int threads = 8;
+    /**
+     * Branches waiting for a thread; beyond that the requesting thread runs them itself.
+     */
+    private int queueCapacity = 100;
+    private Duration timeout = Duration.ofSeconds(5);
+}
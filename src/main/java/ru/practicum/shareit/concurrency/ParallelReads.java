@@ -0,0 +1,113 @@
+package ru.practicum.shareit.concurrency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs independent reads of one request at the same time, so their database round trips overlap.
+ * All branches but the last go to a bounded pool, each in a read-only transaction of its own; the last runs on the
+ * calling thread, in the caller's transaction if there is one, so the connection that transaction holds is used too.
+ * The first failure is rethrown as is and interrupts the branches still running, as does a timeout, reported as
+ * {@link QueryTimeoutException}. Inside a read-write transaction the branches run one after another on the calling
+ * thread instead, since other threads would not see its uncommitted changes.
+ * Each branch is timed by {@code shareit.parallel-reads.branch}, tagged with the operation and branch name.
+ */
+public class ParallelReads implements AutoCloseable {
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionOperations readOnlyTransaction;
+    private final Duration timeout;
+    private final MeterRegistry meterRegistry;
+
+    public ParallelReads(ParallelReadProperties properties, TransactionOperations readOnlyTransaction,
+                         MeterRegistry meterRegistry) {
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(properties.getThreads());
+        this.executor.setMaxPoolSize(properties.getThreads());
+        this.executor.setQueueCapacity(properties.getQueueCapacity());
+        this.executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.setTaskDecorator(new RequestContextTaskDecorator());
+        this.executor.setThreadNamePrefix("parallel-read-");
+        this.executor.initialize();
+        this.readOnlyTransaction = readOnlyTransaction;
+        this.timeout = properties.getTimeout();
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void run(String operation, List<Branch> branches) {
+        boolean inTransaction = TransactionSynchronizationManager.isActualTransactionActive();
+        if (branches.size() < 2 || inTransaction && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            branches.forEach(branch -> timed(operation, branch).run());
+            return;
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        ExecutorCompletionService<Void> completion = new ExecutorCompletionService<>(executor);
+        List<Future<Void>> futures = new ArrayList<>();
+        try {
+            for (Branch branch : branches.subList(0, branches.size() - 1)) {
+                Runnable task = transactional(operation, branch);
+                futures.add(completion.submit(task, null));
+            }
+            Branch last = branches.get(branches.size() - 1);
+            (inTransaction ? timed(operation, last) : transactional(operation, last)).run();
+            for (int i = 0; i < futures.size(); i++) {
+                Future<Void> done = completion.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    throw new QueryTimeoutException(operation + ": чтение не завершилось за " + timeout);
+                }
+                done.get();
+            }
+        } catch (ExecutionException exception) {
+            throw rethrow(exception.getCause());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(operation + ": чтение прервано", exception);
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private Runnable transactional(String operation, Branch branch) {
+        Runnable timed = timed(operation, branch);
+        return () -> readOnlyTransaction.executeWithoutResult(status -> timed.run());
+    }
+
+    private Runnable timed(String operation, Branch branch) {
+        Timer timer = Timer.builder("shareit.parallel-reads.branch")
+                .description("Time taken by one branch of a parallel read")
+                .tag("operation", operation)
+                .tag("branch", branch.name())
+                .register(meterRegistry);
+        return () -> timer.record(branch.action());
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    public record Branch(String name, Runnable action) {
+    }
+}
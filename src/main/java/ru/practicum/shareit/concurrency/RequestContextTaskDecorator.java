@@ -0,0 +1,30 @@
+package ru.practicum.shareit.concurrency;
+
+import org.springframework.core.task.TaskDecorator;
+import ru.practicum.shareit.datasource.DataSourceRouting;
+import ru.practicum.shareit.monitoring.RequestQueryStatistics;
+
+/**
+ * Carries the per-thread request state that queries depend on to the thread running a task: the primary-database
+ * override of {@link DataSourceRouting} and the {@link RequestQueryStatistics} the queries are counted in.
+ * The state found on the running thread is restored afterwards, as the task may run on the submitting thread.
+ */
+public class RequestContextTaskDecorator implements TaskDecorator {
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        boolean primaryForced = DataSourceRouting.isPrimaryForced();
+        RequestQueryStatistics statistics = RequestQueryStatistics.current();
+        return () -> {
+            RequestQueryStatistics previous = RequestQueryStatistics.attach(statistics);
+            try {
+                if (primaryForced) {
+                    DataSourceRouting.onPrimary(runnable);
+                } else {
+                    runnable.run();
+                }
+            } finally {
+                RequestQueryStatistics.attach(previous);
+            }
+        };
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Keeps reads of a user on the primary for a while after that user changed something,
+ * so that replica lag never hides the user's own writes. A write is recorded as soon as it comes in, because the
+ * client may send its next read the moment the response arrives, before {@code afterCompletion} has run.
+ * The override is cleared when the request thread is handed back, also when the request goes async; code running
+ * later on another thread, such as a streaming body, has to carry it over itself.
+ */
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+    public static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesInterceptor(Duration window) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String userId = request.getHeader(USER_HEADER);
+        if (userId == null) {
+            return true;
+        }
+        if (isWrite(request.getMethod())) {
+            recentWriters.put(userId, Boolean.TRUE);
+        } else if (recentWriters.getIfPresent(userId) != null) {
+            DataSourceRouting.forcePrimary();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        DataSourceRouting.reset();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        DataSourceRouting.reset();
+    }
+
+    private boolean isWrite(String method) {
+        return !HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method) && !HttpMethod.OPTIONS.matches(method);
+    }
+}
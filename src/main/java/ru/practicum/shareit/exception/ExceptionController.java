@@ -1,7 +1,10 @@
 package ru.practicum.shareit.exception;
 
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -29,4 +32,42 @@ public class ExceptionController {
     public Map<String, String> hadnleIllegalSearchModeException(IllegalSearchModeException exception) {
         return Map.of("error", exception.getMessage());
     }
-}
\ No newline at end of file
+
+    @ExceptionHandler(IllegalPageCursorException.class)
+    @ResponseStatus(value = HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleIllegalPageCursorException(IllegalPageCursorException exception) {
+        return Map.of("error", exception.getMessage());
+    }
+
+    @ExceptionHandler(ValidationDtoException.class)
+    @ResponseStatus(value = HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleValidationDtoException(ValidationDtoException exception) {
+        return Map.of("error", exception.getMessage());
+    }
+
+    @ExceptionHandler(BookingConflictException.class)
+    @ResponseStatus(value = HttpStatus.CONFLICT)
+    public Map<String, String> handleBookingConflictException(BookingConflictException exception) {
+        return Map.of("error", exception.getMessage());
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(value = HttpStatus.CONFLICT)
+    public Map<String, String> handleOptimisticLockingFailureException(OptimisticLockingFailureException exception) {
+        return Map.of("error", "Запись была изменена другим запросом, повторите попытку.");
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<Map<String, String>> handleTooManyRequestsException(TooManyRequestsException exception) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+                .body(Map.of("error", exception.getMessage()));
+    }
+
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<Map<String, String>> handleServiceOverloadedException(ServiceOverloadedException exception) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", exception.getMessage()));
+    }
+}
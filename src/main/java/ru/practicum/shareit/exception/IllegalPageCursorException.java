@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception;
+
+public class IllegalPageCursorException extends RuntimeException {
+    public IllegalPageCursorException(String message) {
+        super(message);
+    }
+}
@@ -1,10 +1,14 @@
 package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -14,13 +18,19 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.item.dto.CommentOutputDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDtoExtended;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.PageParams;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequiredArgsConstructor
@@ -41,18 +51,48 @@ public class ItemController {
 
     @GetMapping("/{itemId}")
     public ItemDto get(@PathVariable @NotNull @Positive Integer itemId,
-                       @RequestHeader("X-Sharer-User-Id") @NotNull Integer userId) {
+                       @RequestHeader("X-Sharer-User-Id") @NotNull Integer userId,
+                       WebRequest request) {
+        Optional<String> etag = itemService.getEtag(itemId, userId);
+        if (etag.isPresent() && request.checkNotModified(etag.get())) {
+            return null;
+        }
         return itemService.get(itemId, userId);
     }
 
     @GetMapping
-    public List<ItemDtoExtended> getAll(@RequestHeader("X-Sharer-User-Id") @NotNull Integer userId) {
-        return itemService.getAll(userId);
+    public ResponseEntity<List<ItemDtoExtended>> getAll(@RequestHeader("X-Sharer-User-Id") @NotNull Integer userId,
+                                                        @RequestParam(defaultValue = PageParams.DEFAULT_FROM) @PositiveOrZero Integer from,
+                                                        @RequestParam(defaultValue = PageParams.DEFAULT_SIZE) @Positive @Max(PageParams.MAX_SIZE) Integer size,
+                                                        @RequestParam(required = false) String cursor) {
+        return itemService.getAll(userId, new PageParams(from, size, cursor)).toResponseEntity();
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(@PathVariable @NotNull @Positive Integer itemId,
+                                               @RequestHeader("X-Sharer-User-Id") @NotNull Integer userId,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.getAvailability(itemId, userId, from, to);
     }
 
     @GetMapping("/search")
-    public List<ItemDto> search(@RequestHeader("X-Sharer-User-Id") @NotNull Integer userId, @RequestParam("text") String text) {
-        return itemService.search(userId, text);
+    public ResponseEntity<List<ItemDto>> search(@RequestHeader("X-Sharer-User-Id") @NotNull Integer userId,
+                                                @RequestParam("text") String text,
+                                                @RequestParam(defaultValue = PageParams.DEFAULT_FROM) @PositiveOrZero Integer from,
+                                                @RequestParam(defaultValue = PageParams.DEFAULT_SIZE) @Positive @Max(PageParams.MAX_SIZE) Integer size,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(defaultValue = "false") boolean fuzzy) {
+        PageParams page = new PageParams(from, size, cursor);
+        return (fuzzy ? itemService.fuzzySearch(userId, text, page) : itemService.search(userId, text, page))
+                .toResponseEntity();
+    }
+
+    @GetMapping("/search/suggest")
+    public List<ItemSuggestionDto> suggest(@RequestHeader("X-Sharer-User-Id") @NotNull Integer userId,
+                                           @RequestParam("prefix") String prefix,
+                                           @RequestParam(defaultValue = "10") @Positive Integer limit) {
+        return itemService.suggest(userId, prefix, limit);
     }
 
     @PostMapping("/{itemId}/comment")
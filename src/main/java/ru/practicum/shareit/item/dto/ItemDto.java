@@ -12,4 +12,5 @@ public class ItemDto {
     private String name;
     private String description;
     private Boolean available;
+    private Integer requestId;
 }
\ No newline at end of file
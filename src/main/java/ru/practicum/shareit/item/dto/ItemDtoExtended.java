@@ -17,7 +17,7 @@ public class ItemDtoExtended extends ItemDto {
     private BookingDtoShortOutput nextBooking;
 
     public ItemDtoExtended(ItemDto itemDto, List<CommentOutputDto> comments) {
-        super(itemDto.getId(), itemDto.getName(), itemDto.getDescription(), itemDto.getAvailable());
+        super(itemDto.getId(), itemDto.getName(), itemDto.getDescription(), itemDto.getAvailable(), itemDto.getRequestId());
         this.comments = comments;
     }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.dto;
+
+public interface ItemView {
+    Integer getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+    Integer getRequestId();
+
+    Integer getVersion();
+}
@@ -4,6 +4,7 @@ import org.mapstruct.Mapper;
 import org.mapstruct.MappingConstants;
 import org.mapstruct.factory.Mappers;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.model.Item;
 
 @Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
@@ -12,5 +13,7 @@ public interface ItemMapper {
 
     ItemDto toItemDto(Item item);
 
+    ItemDto toItemDto(ItemView itemView);
+
     Item toItem(ItemDto itemDto);
-}
\ No newline at end of file
+}
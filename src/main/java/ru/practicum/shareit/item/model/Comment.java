@@ -7,6 +7,8 @@ import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.validator.constraints.Length;
 import ru.practicum.shareit.user.model.User;
 
@@ -14,6 +16,8 @@ import java.time.LocalDateTime;
 
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "comments")
 @Table(name = "comments")
 @Data
 @NoArgsConstructor
@@ -37,6 +37,12 @@ public class Item {
     @JoinColumn(name = "owner_id")
     private User owner;
 
+    @Column(name = "request_id")
+    private Integer requestId;
+
+    @Version
+    private Integer version;
+
     public Item(Integer id, String name, String description, Boolean available) {
         this.id = id;
         this.name = name;
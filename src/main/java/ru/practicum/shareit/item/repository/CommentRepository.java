@@ -1,12 +1,37 @@
 package ru.practicum.shareit.item.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.CommentOutputDto;
+import ru.practicum.shareit.item.dto.CommentsEtagView;
 import ru.practicum.shareit.item.model.Comment;
 
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Integer>  {
-    List<Comment> findByItemId(Integer itemId);
+    String ITEM_COMMENTS_REGION = "item-comments";
+
+    /**
+     * Cached as plain values, so a hit loads no comment, item or author entities. The join puts {@code users} into
+     * the query spaces: renaming an author invalidates the cached result just like adding a comment does.
+     */
+    @Query("select new ru.practicum.shareit.item.dto.CommentOutputDto(c.id, c.text, a.name, c.created) " +
+            "from Comment c join c.author a " +
+            "where c.item.id = :itemId")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ITEM_COMMENTS_REGION)
+    })
+    List<CommentOutputDto> findOutputsByItemId(@Param("itemId") Integer itemId);
+
+    @Query("select new ru.practicum.shareit.item.dto.CommentsEtagView(count(c), coalesce(max(c.id), 0), coalesce(sum(a.version), 0)) " +
+            "from Comment c join c.author a " +
+            "where c.item.id = :itemId")
+    CommentsEtagView findEtagView(@Param("itemId") Integer itemId);
 }
\ No newline at end of file
@@ -1,12 +1,31 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Integer> {
-    List<Item> findByOwnerId(Integer ownerId);
-}
\ No newline at end of file
+    Window<Item> findByOwnerId(Integer ownerId, ScrollPosition position, Limit limit, Sort sort);
+
+    @Query("select i.id from Item i where i.owner.id = :ownerId")
+    List<Integer> findIdsByOwnerId(Integer ownerId);
+
+    List<ItemView> findByAvailableTrueAndIdGreaterThan(Integer id, Limit limit, Sort sort);
+
+    List<ItemView> findByIdIn(Collection<Integer> ids, Sort sort);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, i.requestId) " +
+            "from Item i where i.requestId in :requestIds order by i.id")
+    List<ItemDto> findAnswers(Collection<Integer> requestIds);
+}
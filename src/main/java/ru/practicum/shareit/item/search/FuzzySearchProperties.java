@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.search.fuzzy")
+public class FuzzySearchProperties {
+    /**
+     * Smallest share of the query trigrams an item must contain to be returned.
+     */
+    private double minSimilarity = 0.5;
+}
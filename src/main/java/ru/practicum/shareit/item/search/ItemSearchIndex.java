@@ -0,0 +1,373 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.datasource.DataSourceRouting;
+import ru.practicum.shareit.item.dto.ItemView;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram inverted index over names and descriptions of available items, each padded with a space on both sides.
+ * For exact search it only narrows down candidates: a candidate is guaranteed to contain every trigram of the query,
+ * the substring check itself is still done by the caller. For fuzzy search it ranks items by {@link #similar}.
+ * The index remembers the text and version it holds for every item, so a change removes exactly what was indexed
+ * and a change older than the indexed version is ignored: after-commit callbacks of two updates may run in either
+ * order.
+ */
+@Component
+public class ItemSearchIndex implements SmartInitializingSingleton {
+    public static final int GRAM_LENGTH = 3;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private final Map<Integer, IndexedItem> indexedItems = new HashMap<>();
+    private int availableItems;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public ItemSearchIndex(ItemRepository itemRepository, MeterRegistry meterRegistry) {
+        this.itemRepository = itemRepository;
+        Gauge.builder("shareit.search.index.items", this, ItemSearchIndex::size)
+                .description("Number of available items in the search index")
+                .register(meterRegistry);
+        Gauge.builder("shareit.search.index.grams", this, ItemSearchIndex::gramCount)
+                .description("Number of distinct trigrams in the search index")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        DataSourceRouting.onPrimary(this::rebuild);
+    }
+
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            indexedItems.clear();
+            availableItems = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Integer lastId = 0;
+        List<ItemView> batch;
+        do {
+            batch = itemRepository.findByAvailableTrueAndIdGreaterThan(lastId, Limit.of(REBUILD_BATCH_SIZE), Sort.by("id"));
+            lock.writeLock().lock();
+            try {
+                for (ItemView item : batch) {
+                    index(item.getId(), new IndexedItem(item.getVersion(), true, item.getName(), item.getDescription()));
+                    lastId = item.getId();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+    }
+
+    public void add(Item item) {
+        update(item);
+    }
+
+    /**
+     * Indexes the committed state of the item in place of whatever is held for it; applying it twice is harmless.
+     */
+    public void update(Item item) {
+        lock.writeLock().lock();
+        try {
+            index(item.getId(), Boolean.TRUE.equals(item.getAvailable())
+                    ? new IndexedItem(item.getVersion(), true, item.getName(), item.getDescription())
+                    : new IndexedItem(item.getVersion(), false, null, null));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Integer itemId) {
+        lock.writeLock().lock();
+        try {
+            IndexedItem removed = indexedItems.remove(itemId);
+            if (removed != null) {
+                unindex(itemId, removed);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isSelective(String query) {
+        return query.length() >= GRAM_LENGTH;
+    }
+
+    /**
+     * Ranks items by the share of trigrams of the padded lowercased query they contain and returns the best
+     * {@code limit} with at least {@code minSimilarity}, most similar first. With q query trigrams, such an item
+     * contains at least m = ceil(minSimilarity * q) of them and therefore appears in at least one of any q - m + 1
+     * posting lists: only the shortest ones are scanned for candidates, the others are probed by binary search.
+     */
+    public List<SimilarItem> similar(String query, double minSimilarity, int limit) {
+        Set<Long> grams = new HashSet<>();
+        collectGrams(" " + query + " ", grams);
+        if (grams.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        int required = Math.max(1, (int) Math.ceil(minSimilarity * grams.size()));
+
+        lock.readLock().lock();
+        try {
+            PostingList[] lists = new PostingList[grams.size()];
+            int i = 0;
+            for (Long gram : grams) {
+                lists[i++] = postings.getOrDefault(gram, PostingList.EMPTY);
+            }
+            Arrays.sort(lists, Comparator.comparingInt(PostingList::size));
+            int scanned = lists.length - required + 1;
+
+            int[] positions = new int[lists.length];
+
+            PriorityQueue<SimilarItem> best = new PriorityQueue<>(SimilarItem.RANKING.reversed());
+            while (required <= lists.length) {
+                int itemId = Integer.MAX_VALUE;
+                for (int j = 0; j < scanned; j++) {
+                    if (positions[j] < lists[j].size()) {
+                        itemId = Math.min(itemId, lists[j].get(positions[j]));
+                    }
+                }
+                if (itemId == Integer.MAX_VALUE) {
+                    break;
+                }
+                int matched = 0;
+                for (int j = 0; j < scanned; j++) {
+                    if (positions[j] < lists[j].size() && lists[j].get(positions[j]) == itemId) {
+                        positions[j]++;
+                        matched++;
+                    }
+                }
+                for (int j = scanned; j < lists.length && matched + lists.length - j >= required; j++) {
+                    positions[j] = lists[j].seek(itemId, positions[j]);
+                    if (positions[j] < lists[j].size() && lists[j].get(positions[j]) == itemId) {
+                        matched++;
+                    }
+                }
+                if (matched >= required) {
+                    best.add(new SimilarItem(itemId, (double) matched / lists.length));
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                    if (best.size() == limit) {
+                        // later candidates have greater ids, so they only get in with strictly more matches
+                        required = (int) Math.round(best.peek().similarity() * lists.length) + 1;
+                    }
+                }
+            }
+            List<SimilarItem> result = new ArrayList<>(best);
+            result.sort(SimilarItem.RANKING);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns ids of items containing all trigrams of the lowercased query, in ascending order.
+     */
+    public int[] candidates(String query) {
+        Set<Long> grams = new HashSet<>();
+        collectGrams(query, grams);
+
+        lock.readLock().lock();
+        try {
+            PostingList[] lists = new PostingList[grams.size()];
+            int i = 0;
+            for (Long gram : grams) {
+                PostingList list = postings.get(gram);
+                if (list == null) {
+                    return new int[0];
+                }
+                lists[i++] = list;
+            }
+            Arrays.sort(lists, Comparator.comparingInt(PostingList::size));
+
+            int[] result = lists[0].toArray();
+            for (int j = 1; j < lists.length && result.length > 0; j++) {
+                result = lists[j].retain(result);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return availableItems;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int gramCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void index(Integer itemId, IndexedItem item) {
+        IndexedItem current = indexedItems.get(itemId);
+        if (current != null) {
+            if (current.isNewerThan(item)) {
+                return;
+            }
+            unindex(itemId, current);
+        }
+        indexedItems.put(itemId, item);
+        if (!item.available()) {
+            return;
+        }
+        for (Long gram : item.grams()) {
+            postings.computeIfAbsent(gram, key -> new PostingList()).add(itemId);
+        }
+        availableItems++;
+    }
+
+    private void unindex(Integer itemId, IndexedItem item) {
+        if (!item.available()) {
+            return;
+        }
+        for (Long gram : item.grams()) {
+            PostingList list = postings.get(gram);
+            if (list != null && list.remove(itemId) && list.size() == 0) {
+                postings.remove(gram);
+            }
+        }
+        availableItems--;
+    }
+
+    private static void collectGrams(String text, Set<Long> grams) {
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+    }
+
+    /**
+     * What the index holds for one item; unavailable items are kept too, only for their version.
+     */
+    private record IndexedItem(Integer version, boolean available, String name, String description) {
+        boolean isNewerThan(IndexedItem other) {
+            return version != null && other.version() != null && version > other.version();
+        }
+
+        Set<Long> grams() {
+            Set<Long> grams = new HashSet<>();
+            collectGrams(" " + name.toLowerCase() + " ", grams);
+            collectGrams(" " + description.toLowerCase() + " ", grams);
+            return grams;
+        }
+    }
+
+    public record SimilarItem(int itemId, double similarity) {
+        static final Comparator<SimilarItem> RANKING = Comparator.comparingDouble(SimilarItem::similarity).reversed()
+                .thenComparingInt(SimilarItem::itemId);
+    }
+
+    private static final class PostingList {
+        private static final PostingList EMPTY = new PostingList();
+
+        private int[] ids = new int[4];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        void add(int id) {
+            if (size == 0 || id > ids[size - 1]) {
+                ensureCapacity();
+                ids[size++] = id;
+                return;
+            }
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            int insertAt = -position - 1;
+            ensureCapacity();
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        boolean remove(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        int get(int position) {
+            return ids[position];
+        }
+
+        /**
+         * Position of the first id not less than {@code id}, searching forward from {@code from} by galloping.
+         */
+        int seek(int id, int from) {
+            int step = 1;
+            int low = from;
+            int high = from;
+            while (high < size && ids[high] < id) {
+                low = high + 1;
+                high = from + step;
+                step <<= 1;
+            }
+            int position = Arrays.binarySearch(ids, low, Math.min(high, size), id);
+            return position >= 0 ? position : -position - 1;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+
+        int[] retain(int[] sortedIds) {
+            int[] result = new int[Math.min(sortedIds.length, size)];
+            int count = 0;
+            for (int id : sortedIds) {
+                if (Arrays.binarySearch(ids, 0, size, id) >= 0) {
+                    result[count++] = id;
+                }
+            }
+            return Arrays.copyOf(result, count);
+        }
+
+        private void ensureCapacity() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.datasource.DataSourceRouting;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.dto.ItemView;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Prefix trie of the words in names and descriptions of available items, weighted by the number of items that
+ * contain them. Every node keeps the best {@code top-k} words below it, so a lookup only walks the prefix; a change
+ * of one word's weight recomputes those lists along its path.
+ * With {@code max-terms} set, adding a word to a full trie evicts the lightest one; a word that comes back after
+ * eviction starts counting again, so weights in that mode are a lower bound.
+ * The words and version counted for every item are kept, so a change is diffed against what was counted and a change
+ * older than the counted version is ignored: after-commit callbacks of two updates may run in either order.
+ */
+@Component
+public class ItemSuggestIndex implements SmartInitializingSingleton {
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Node[] NO_NODES = new Node[0];
+    private static final char[] NO_KEYS = new char[0];
+    private static final Comparator<Node> BY_WEIGHT = Comparator.comparingInt((Node node) -> node.count).reversed()
+            .thenComparing(node -> node.term);
+
+    private final ItemRepository itemRepository;
+    private final SuggestProperties properties;
+    private final Counter evictions;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableSet<Node> lightestFirst = new TreeSet<>(
+            Comparator.comparingInt((Node node) -> node.count).thenComparing(node -> node.term));
+    private Map<Integer, IndexedTerms> indexedItems = new HashMap<>();
+    private Node root = new Node();
+    private int termCount;
+
+    public ItemSuggestIndex(ItemRepository itemRepository, SuggestProperties properties, MeterRegistry meterRegistry) {
+        this.itemRepository = itemRepository;
+        this.properties = properties;
+        this.evictions = Counter.builder("shareit.search.suggest.evictions")
+                .description("Words dropped from the suggestion trie to stay within max-terms")
+                .register(meterRegistry);
+        Gauge.builder("shareit.search.suggest.terms", this, ItemSuggestIndex::size)
+                .description("Number of distinct words in the suggestion trie")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        DataSourceRouting.onPrimary(this::rebuild);
+    }
+
+    /**
+     * Counts the words of all available items first and builds the trie and its top lists in one pass.
+     */
+    public void rebuild() {
+        Map<String, Integer> counts = new HashMap<>();
+        Map<Integer, IndexedTerms> items = new HashMap<>();
+        Integer lastId = 0;
+        List<ItemView> batch;
+        do {
+            batch = itemRepository.findByAvailableTrueAndIdGreaterThan(lastId, Limit.of(REBUILD_BATCH_SIZE), Sort.by("id"));
+            for (ItemView item : batch) {
+                Set<String> terms = terms(item.getName(), item.getDescription());
+                terms.forEach(term -> counts.merge(term, 1, Integer::sum));
+                items.put(item.getId(), new IndexedTerms(item.getVersion(), terms));
+                lastId = item.getId();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+
+        List<Map.Entry<String, Integer>> kept = new ArrayList<>(counts.entrySet());
+        if (properties.getMaxTerms() > 0 && kept.size() > properties.getMaxTerms()) {
+            kept.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+            kept = kept.subList(0, properties.getMaxTerms());
+        }
+        Node rebuilt = new Node();
+        List<Node> terminals = new ArrayList<>(kept.size());
+        for (Map.Entry<String, Integer> entry : kept) {
+            Node node = rebuilt;
+            for (int i = 0; i < entry.getKey().length(); i++) {
+                node = node.childOrCreate(entry.getKey().charAt(i));
+            }
+            node.term = entry.getKey();
+            node.count = entry.getValue();
+            terminals.add(node);
+        }
+        computeTops(rebuilt);
+
+        lock.writeLock().lock();
+        try {
+            root = rebuilt;
+            indexedItems = items;
+            termCount = terminals.size();
+            lightestFirst.clear();
+            if (properties.getMaxTerms() > 0) {
+                lightestFirst.addAll(terminals);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void add(Item item) {
+        update(item);
+    }
+
+    /**
+     * Counts the words of the committed state of the item in place of those counted for it; applying it twice is
+     * harmless.
+     */
+    public void update(Item item) {
+        IndexedTerms indexed = new IndexedTerms(item.getVersion(), indexedTerms(item));
+        lock.writeLock().lock();
+        try {
+            IndexedTerms current = indexedItems.get(item.getId());
+            if (current != null && current.isNewerThan(indexed)) {
+                return;
+            }
+            Set<String> removed = current == null ? new HashSet<>() : new HashSet<>(current.terms());
+            removed.removeAll(indexed.terms());
+            Set<String> added = new HashSet<>(indexed.terms());
+            if (current != null) {
+                added.removeAll(current.terms());
+            }
+            indexedItems.put(item.getId(), indexed);
+            removed.forEach(term -> change(term, -1));
+            added.forEach(term -> change(term, 1));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Integer itemId) {
+        lock.writeLock().lock();
+        try {
+            IndexedTerms removed = indexedItems.remove(itemId);
+            if (removed != null) {
+                removed.terms().forEach(term -> change(term, -1));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} words starting with the prefix, most frequent first.
+     */
+    public List<ItemSuggestionDto> suggest(String prefix, int limit) {
+        String normalized = prefix == null ? "" : prefix.trim().toLowerCase();
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < normalized.length() && node != null; i++) {
+                node = node.child(normalized.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+            int size = Math.min(limit, node.top.length);
+            List<ItemSuggestionDto> suggestions = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                suggestions.add(new ItemSuggestionDto(node.top[i].term, node.top[i].count));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return termCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Set<String> indexedTerms(Item item) {
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return Set.of();
+        }
+        return terms(item.getName(), item.getDescription());
+    }
+
+    private Set<String> terms(String name, String description) {
+        Set<String> terms = new HashSet<>();
+        for (String text : new String[]{name, description}) {
+            if (text == null) {
+                continue;
+            }
+            for (String word : SEPARATORS.split(text.toLowerCase())) {
+                if (word.length() >= properties.getMinTermLength() && word.length() <= properties.getMaxTermLength()) {
+                    terms.add(word);
+                }
+            }
+        }
+        return terms;
+    }
+
+    private void change(String term, int delta) {
+        Node existing = find(term);
+        if (existing == null || existing.count == 0) {
+            if (delta < 0) {
+                return;
+            }
+            if (properties.getMaxTerms() > 0 && termCount >= properties.getMaxTerms() && !lightestFirst.isEmpty()) {
+                Node lightest = lightestFirst.first();
+                change(lightest.term, -lightest.count);
+                evictions.increment();
+            }
+        }
+
+        Node[] path = new Node[term.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < term.length(); i++) {
+            path[i + 1] = path[i].childOrCreate(term.charAt(i));
+        }
+        Node node = path[term.length()];
+        boolean bounded = properties.getMaxTerms() > 0;
+        if (bounded && node.count > 0) {
+            lightestFirst.remove(node);
+        }
+        int before = node.count;
+        node.term = term;
+        node.count = Math.max(0, node.count + delta);
+        if (before == 0 && node.count > 0) {
+            termCount++;
+        } else if (before > 0 && node.count == 0) {
+            termCount--;
+        }
+        if (bounded && node.count > 0) {
+            lightestFirst.add(node);
+        }
+
+        for (int i = term.length(); i >= 0; i--) {
+            Node current = path[i];
+            if (i > 0 && current.count == 0 && current.keys.length == 0) {
+                path[i - 1].removeChild(term.charAt(i - 1));
+                continue;
+            }
+            computeTop(current);
+        }
+    }
+
+    private Node find(String term) {
+        Node node = root;
+        for (int i = 0; i < term.length() && node != null; i++) {
+            node = node.child(term.charAt(i));
+        }
+        return node;
+    }
+
+    private void computeTops(Node node) {
+        for (Node child : node.children) {
+            computeTops(child);
+        }
+        computeTop(node);
+    }
+
+    private void computeTop(Node node) {
+        List<Node> candidates = new ArrayList<>();
+        if (node.count > 0) {
+            candidates.add(node);
+        }
+        for (Node child : node.children) {
+            candidates.addAll(Arrays.asList(child.top));
+        }
+        candidates.sort(BY_WEIGHT);
+        int size = Math.min(properties.getTopK(), candidates.size());
+        node.top = candidates.subList(0, size).toArray(NO_NODES);
+    }
+
+    /**
+     * Words counted for one item; an unavailable item has none and is kept only for its version.
+     */
+    private record IndexedTerms(Integer version, Set<String> terms) {
+        boolean isNewerThan(IndexedTerms other) {
+            return version != null && other.version() != null && version > other.version();
+        }
+    }
+
+    private static final class Node {
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_NODES;
+        private Node[] top = NO_NODES;
+        private String term;
+        private int count;
+
+        Node child(char key) {
+            int position = Arrays.binarySearch(keys, key);
+            return position >= 0 ? children[position] : null;
+        }
+
+        Node childOrCreate(char key) {
+            int position = Arrays.binarySearch(keys, key);
+            if (position >= 0) {
+                return children[position];
+            }
+            int insertAt = -position - 1;
+            Node child = new Node();
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newKeys[insertAt] = key;
+            newChildren[insertAt] = child;
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            keys = newKeys;
+            children = newChildren;
+            return child;
+        }
+
+        void removeChild(char key) {
+            int position = Arrays.binarySearch(keys, key);
+            if (position < 0) {
+                return;
+            }
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, position);
+            System.arraycopy(children, 0, newChildren, 0, position);
+            System.arraycopy(keys, position + 1, newKeys, position, keys.length - position - 1);
+            System.arraycopy(children, position + 1, newChildren, position, children.length - position - 1);
+            keys = newKeys;
+            children = newChildren;
+        }
+    }
+}
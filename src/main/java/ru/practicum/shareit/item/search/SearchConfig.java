@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties({SuggestProperties.class, FuzzySearchProperties.class})
+public class SearchConfig {
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.search.suggest")
+public class SuggestProperties {
+    /**
+     * Most suggestions returned for one prefix.
+     */
+    private int topK = 10;
+    /**
+     * Upper bound on distinct terms kept, 0 for no bound.
+     */
+    private int maxTerms = 0;
+    private int minTermLength = 2;
+    private int maxTermLength = 40;
+}
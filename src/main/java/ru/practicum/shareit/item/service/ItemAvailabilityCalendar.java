@@ -0,0 +1,172 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.service.BookingConflictIndex;
+import ru.practicum.shareit.cache.EntityCacheProperties;
+import ru.practicum.shareit.datasource.DataSourceRouting;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Busy time of each item, merged from its WAITING and APPROVED bookings. An item's timeline is loaded once from
+ * a floor time onwards, so bookings that ended before it are never read, and is answered from memory for any window
+ * starting at or after the floor. Timelines are dropped after booking changes. Evictions bump a generation counter of
+ * the item's stripe first, and a load only caches its result if the counter did not move while it ran: a load that
+ * overlapped a commit may have read the data before it. The counter is read again after the put, since an eviction
+ * between the check and the put would otherwise be overwritten by the stale timeline.
+ */
+@Component
+public class ItemAvailabilityCalendar {
+    private static final int GENERATION_STRIPES = 64;
+
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<Integer, Timeline> timelines;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public ItemAvailabilityCalendar(BookingRepository bookingRepository, PlatformTransactionManager transactionManager,
+                                    EntityCacheProperties properties, MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.timelines = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .<Integer, Timeline>build(), "availability");
+    }
+
+    public ItemAvailabilityDto getAvailability(Integer itemId, LocalDateTime from, LocalDateTime to) {
+        Timeline cached = timelines.getIfPresent(itemId);
+        if (cached != null && !cached.floor().isAfter(from)) {
+            return cached.window(itemId, from, to);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int stripe = stripe(itemId);
+        long generation = generations.get(stripe);
+        Timeline loaded = load(itemId, from.isBefore(now) ? from : now);
+        if (generations.get(stripe) == generation) {
+            beforeCaching(itemId);
+            timelines.put(itemId, loaded);
+            if (generations.get(stripe) != generation) {
+                timelines.invalidate(itemId);
+            }
+        }
+        return loaded.window(itemId, from, to);
+    }
+
+    @TransactionalEventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        evict(event.getItemIds());
+    }
+
+    public void evict(Collection<Integer> itemIds) {
+        itemIds.forEach(itemId -> generations.incrementAndGet(stripe(itemId)));
+        timelines.invalidateAll(itemIds);
+    }
+
+    /**
+     * Runs between the generation check and the put; lets tests evict at exactly that point.
+     */
+    void beforeCaching(Integer itemId) {
+    }
+
+    private Timeline load(Integer itemId, LocalDateTime floor) {
+        List<BookingIntervalView> bookings = DataSourceRouting.onPrimary(() -> transactionTemplate.execute(status ->
+                bookingRepository.findIntervalsByItemId(itemId, BookingConflictIndex.ACTIVE_STATUSES, floor)));
+        return new Timeline(floor, merge(bookings));
+    }
+
+    private int stripe(Integer itemId) {
+        return Math.floorMod(itemId, GENERATION_STRIPES);
+    }
+
+    /**
+     * Sweeps bookings sorted by start and joins every booking that starts before or when the current busy interval
+     * ends into it.
+     */
+    static List<Interval> merge(List<BookingIntervalView> bookingsByStart) {
+        List<Interval> merged = new ArrayList<>();
+        LocalDateTime start = null;
+        LocalDateTime end = null;
+        for (BookingIntervalView booking : bookingsByStart) {
+            if (end != null && !booking.getStart().isAfter(end)) {
+                if (booking.getEnd().isAfter(end)) {
+                    end = booking.getEnd();
+                }
+                continue;
+            }
+            if (end != null) {
+                merged.add(new Interval(start, end));
+            }
+            start = booking.getStart();
+            end = booking.getEnd();
+        }
+        if (end != null) {
+            merged.add(new Interval(start, end));
+        }
+        return merged;
+    }
+
+    record Interval(LocalDateTime start, LocalDateTime end) {
+    }
+
+    /**
+     * Disjoint busy intervals in ascending order, complete for everything that ends after {@code floor}.
+     */
+    private record Timeline(LocalDateTime floor, List<Interval> busy) {
+        ItemAvailabilityDto window(Integer itemId, LocalDateTime from, LocalDateTime to) {
+            ItemAvailabilityDto availability = new ItemAvailabilityDto();
+            availability.setItemId(itemId);
+            availability.setFrom(from);
+            availability.setTo(to);
+
+            LocalDateTime freeFrom = from;
+            for (int i = firstEndingAfter(from); i < busy.size() && busy.get(i).start().isBefore(to); i++) {
+                Interval interval = busy.get(i);
+                LocalDateTime busyFrom = interval.start().isAfter(from) ? interval.start() : from;
+                LocalDateTime busyTo = interval.end().isBefore(to) ? interval.end() : to;
+                if (freeFrom.isBefore(busyFrom)) {
+                    availability.getFree().add(new AvailabilityIntervalDto(freeFrom, busyFrom));
+                }
+                availability.getBusy().add(new AvailabilityIntervalDto(busyFrom, busyTo));
+                freeFrom = busyTo;
+            }
+            if (freeFrom.isBefore(to)) {
+                availability.getFree().add(new AvailabilityIntervalDto(freeFrom, to));
+            }
+            return availability;
+        }
+
+        private int firstEndingAfter(LocalDateTime time) {
+            int low = 0;
+            int high = busy.size();
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (busy.get(middle).end().isAfter(time)) {
+                    high = middle;
+                } else {
+                    low = middle + 1;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDtoShortOutput;
+import ru.practicum.shareit.booking.dto.BookingShortView;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDtoExtended;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves last and next bookings for a whole set of items with two queries,
+ * independent of the number of items.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemBookingResolver {
+    private final BookingRepository bookingRepository;
+
+    public void resolve(Collection<ItemDtoExtended> items, LocalDateTime now) {
+        if (items.isEmpty()) {
+            return;
+        }
+        List<Integer> itemIds = items.stream()
+                .map(ItemDtoExtended::getId)
+                .collect(Collectors.toList());
+
+        Map<Integer, BookingShortView> last = findLast(itemIds, now);
+        Map<Integer, BookingShortView> next = findNext(itemIds, now);
+
+        for (ItemDtoExtended item : items) {
+            item.setLastBooking(toShortOutput(last.get(item.getId())));
+            item.setNextBooking(toShortOutput(next.get(item.getId())));
+        }
+    }
+
+    /**
+     * The not rejected booking of each item with the latest start before {@code now}.
+     */
+    public Map<Integer, BookingShortView> findLast(Collection<Integer> itemIds, LocalDateTime now) {
+        return byItem(bookingRepository.findLastByItemIds(itemIds, now, BookingStatus.REJECTED),
+                BinaryOperator.maxBy(Comparator.comparing(BookingShortView::getId)));
+    }
+
+    /**
+     * The not rejected booking of each item with the earliest start after {@code now}.
+     */
+    public Map<Integer, BookingShortView> findNext(Collection<Integer> itemIds, LocalDateTime now) {
+        return byItem(bookingRepository.findNextByItemIds(itemIds, now, BookingStatus.REJECTED),
+                BinaryOperator.minBy(Comparator.comparing(BookingShortView::getId)));
+    }
+
+    private Map<Integer, BookingShortView> byItem(List<BookingShortView> bookings,
+                                                  BinaryOperator<BookingShortView> onSameStart) {
+        return bookings.stream()
+                .collect(Collectors.toMap(BookingShortView::getItemId, booking -> booking, onSameStart));
+    }
+
+    static BookingDtoShortOutput toShortOutput(BookingShortView booking) {
+        return booking == null ? null : new BookingDtoShortOutput(booking.getId(), booking.getBookerId());
+    }
+}
@@ -0,0 +1,202 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingShortView;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.datasource.DataSourceRouting;
+import ru.practicum.shareit.item.dto.ItemDtoExtended;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Last and next bookings of every booked item, kept in memory so that owner reads do not query bookings.
+ * An entry stays valid until its next booking starts; the scheduler refreshes entries that passed that boundary,
+ * and {@link #resolve} falls back to {@link ItemBookingResolver} for entries it has not reached yet.
+ * Booking writes must publish a {@link BookingChangedEvent}; the summary reloads the affected items after commit.
+ * Each reload takes a ticket before reading, and an entry is only replaced by a reload with a later ticket:
+ * such a reload started after the commit that triggered the earlier one, so it cannot have read older data.
+ */
+@Component
+public class ItemBookingSummary implements SmartInitializingSingleton {
+    private static final int REFRESH_BATCH_SIZE = 1000;
+
+    private final BookingRepository bookingRepository;
+    private final ItemBookingResolver itemBookingResolver;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter fallbacks;
+    private final AtomicLong tickets = new AtomicLong();
+    private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+    private final NavigableSet<Boundary> boundaries = new ConcurrentSkipListSet<>(
+            Comparator.comparing(Boundary::time).thenComparing(Boundary::itemId));
+    private volatile boolean ready;
+
+    public ItemBookingSummary(BookingRepository bookingRepository, ItemBookingResolver itemBookingResolver,
+                              PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.itemBookingResolver = itemBookingResolver;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.fallbacks = Counter.builder("shareit.booking.summary.fallbacks")
+                .description("Items whose last and next bookings were queried because the summary entry had expired")
+                .register(meterRegistry);
+        Gauge.builder("shareit.booking.summary.items", entries, Map::size)
+                .description("Number of items in the booking summary")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        ready = false;
+        entries.clear();
+        boundaries.clear();
+        List<Integer> itemIds = DataSourceRouting.onPrimary(() ->
+                transactionTemplate.execute(status -> bookingRepository.findBookedItemIds()));
+        refreshInBatches(itemIds, LocalDateTime.now());
+        ready = true;
+    }
+
+    @TransactionalEventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        refresh(event.getItemIds());
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-summary.roll-interval}")
+    public void rollForward() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Integer> expired = new ArrayList<>();
+        for (Boundary boundary : boundaries) {
+            if (boundary.time().isAfter(now)) {
+                break;
+            }
+            expired.add(boundary.itemId());
+        }
+        refreshInBatches(expired, now);
+    }
+
+    /**
+     * Reloads the entries of the given items from the primary database. Called after commit, the queries run on
+     * the connection of the finished transaction rather than taking a second one from the pool.
+     */
+    public void refresh(Collection<Integer> itemIds) {
+        refresh(itemIds, LocalDateTime.now());
+    }
+
+    /**
+     * Reloads the entries as they stand at {@code now}; tests pass an earlier time to get entries that have expired.
+     */
+    void refresh(Collection<Integer> itemIds, LocalDateTime now) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        long ticket = tickets.incrementAndGet();
+        // A booking starting exactly at now is neither last nor next yet; keeping it as next expires the entry
+        // right away instead of hiding the booking until the following boundary.
+        Loaded loaded = DataSourceRouting.onPrimary(() -> transactionTemplate.execute(status -> new Loaded(
+                itemBookingResolver.findLast(itemIds, now),
+                itemBookingResolver.findNext(itemIds, now.minusNanos(1)))));
+        for (Integer itemId : itemIds) {
+            put(itemId, new Entry(ticket, loaded.last().get(itemId), loaded.next().get(itemId)));
+        }
+    }
+
+    /**
+     * Sets last and next bookings of the items as {@link ItemBookingResolver#resolve} would at {@code now}.
+     */
+    public void resolve(Collection<ItemDtoExtended> items, LocalDateTime now) {
+        if (!ready) {
+            itemBookingResolver.resolve(items, now);
+            return;
+        }
+        List<ItemDtoExtended> expired = new ArrayList<>();
+        for (ItemDtoExtended item : items) {
+            Entry entry = entries.get(item.getId());
+            if (entry == null || entry.isEmpty()) {
+                item.setLastBooking(null);
+                item.setNextBooking(null);
+            } else if (entry.isValidAt(now)) {
+                item.setLastBooking(ItemBookingResolver.toShortOutput(entry.last()));
+                item.setNextBooking(ItemBookingResolver.toShortOutput(entry.next()));
+            } else {
+                expired.add(item);
+            }
+        }
+        if (!expired.isEmpty()) {
+            fallbacks.increment(expired.size());
+            itemBookingResolver.resolve(expired, now);
+        }
+    }
+
+    /**
+     * Whether {@link #resolve} can answer for the item at {@code now} without querying bookings.
+     */
+    public boolean answersFromMemory(Integer itemId, LocalDateTime now) {
+        if (!ready) {
+            return false;
+        }
+        Entry entry = entries.get(itemId);
+        return entry == null || entry.isEmpty() || entry.isValidAt(now);
+    }
+
+    private void refreshInBatches(List<Integer> itemIds, LocalDateTime now) {
+        for (int from = 0; from < itemIds.size(); from += REFRESH_BATCH_SIZE) {
+            refresh(itemIds.subList(from, Math.min(from + REFRESH_BATCH_SIZE, itemIds.size())), now);
+        }
+    }
+
+    private void put(Integer itemId, Entry entry) {
+        entries.compute(itemId, (id, previous) -> {
+            if (previous != null && previous.ticket() > entry.ticket()) {
+                return previous;
+            }
+            if (previous != null && previous.next() != null) {
+                boundaries.remove(new Boundary(previous.next().getStart(), itemId));
+            }
+            if (entry.next() != null) {
+                boundaries.add(new Boundary(entry.next().getStart(), itemId));
+            }
+            return entry;
+        });
+    }
+
+    /**
+     * Answers stay the same until {@code now} reaches the start of the next booking. Empty entries are kept
+     * so that their ticket still guards against older reloads.
+     */
+    private record Entry(long ticket, BookingShortView last, BookingShortView next) {
+        boolean isEmpty() {
+            return last == null && next == null;
+        }
+
+        boolean isValidAt(LocalDateTime now) {
+            return next == null || now.isBefore(next.getStart());
+        }
+    }
+
+    private record Boundary(LocalDateTime time, Integer itemId) {
+    }
+
+    private record Loaded(Map<Integer, BookingShortView> last, Map<Integer, BookingShortView> next) {
+    }
+}
@@ -2,10 +2,16 @@ package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentOutputDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDtoExtended;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.PageParams;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemService {
     ItemDto add(Integer userId, ItemDto itemDto);
@@ -14,9 +20,17 @@ public interface ItemService {
 
     ItemDto get(Integer itemId, Integer userId);
 
-    List<ItemDtoExtended> getAll(Integer userId);
+    Optional<String> getEtag(Integer itemId, Integer userId);
 
-    List<ItemDto> search(Integer userId, String text);
+    CursorPage<ItemDtoExtended> getAll(Integer userId, PageParams page);
+
+    ItemAvailabilityDto getAvailability(Integer itemId, Integer userId, LocalDateTime from, LocalDateTime to);
+
+    CursorPage<ItemDto> search(Integer userId, String text, PageParams page);
+
+    CursorPage<ItemDto> fuzzySearch(Integer userId, String text, PageParams page);
+
+    List<ItemSuggestionDto> suggest(Integer userId, String prefix, int limit);
 
     CommentOutputDto addComment(Integer itemId, Integer userId, Comment commentInput);
 
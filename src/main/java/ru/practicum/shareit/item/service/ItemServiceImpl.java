@@ -1,61 +1,106 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
-import ru.practicum.shareit.booking.dto.BookingMapper;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
-import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDtoShortOutput;
+import ru.practicum.shareit.cache.AfterCommit;
+import ru.practicum.shareit.cache.EntityCache;
+import ru.practicum.shareit.concurrency.ParallelReads;
 import ru.practicum.shareit.exception.IllegalItemBookingException;
+import ru.practicum.shareit.exception.IllegalPageCursorException;
 import ru.practicum.shareit.exception.ItemAccessException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationDtoException;
 import ru.practicum.shareit.exception.UnavailableItemBookingException;
 import ru.practicum.shareit.item.dto.CommentOutputDto;
+import ru.practicum.shareit.item.dto.CommentsEtagView;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDtoExtended;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.item.search.FuzzySearchProperties;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSuggestIndex;
+import ru.practicum.shareit.outbox.Outbox;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.PageCursor;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
+    private static final int SEARCH_BATCH_SIZE = 1000;
+
     private final UserService userService;
     private final CommentMapper commentMapper;
     private final ItemMapper itemMapper;
-    private final UserRepository userRepository;
+    private final EntityCache<User> userCache;
+    private final EntityCache<Item> itemCache;
     private final ItemRepository itemRepository;
     private final CommentRepository commentRepository;
     private final BookingRepository bookingRepository;
-    private final BookingMapper bookingMapper;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemSuggestIndex itemSuggestIndex;
+    private final FuzzySearchProperties fuzzySearchProperties;
+    private final ItemBookingSummary itemBookingSummary;
+    private final ItemAvailabilityCalendar itemAvailabilityCalendar;
+    private final Outbox outbox;
+    private final ParallelReads parallelReads;
 
     @Override
+    @Transactional
     public ItemDto add(Integer userId, ItemDto itemDto) {
         validateItemDto(itemDto);
         validateUser(userId);
+        if (itemDto.getRequestId() != null && !itemRequestRepository.existsById(itemDto.getRequestId())) {
+            throw new NotFoundException("Запрос с id " + itemDto.getRequestId() + " не существует.");
+        }
 
         Item item = itemMapper.toItem(itemDto);
-        item.setOwner(userRepository.findById(userId).get());
-        item = itemRepository.save(item);
-        return itemMapper.toItemDto(item);
+        item.setOwner(userCache.find(userId).get());
+        Item saved = itemRepository.save(item);
+        itemCache.putAfterCommit(saved.getId(), saved);
+        AfterCommit.run(() -> {
+            itemSearchIndex.add(saved);
+            itemSuggestIndex.add(saved);
+        });
+        outbox.record(OutboxEventType.ITEM_CREATED, saved.getId());
+        return itemMapper.toItemDto(saved);
     }
 
     @Override
+    @Transactional
     public ItemDto update(Integer itemId, Integer userId, ItemDto itemDto) {
         validateItem(itemId);
 
@@ -81,85 +126,191 @@ public class ItemServiceImpl implements ItemService {
             item.setAvailable(itemDto.getAvailable());
         }
 
-        item = itemRepository.save(item);
-        return itemMapper.toItemDto(item);
+        Item saved = itemRepository.saveAndFlush(item);
+        itemCache.putAfterCommit(saved.getId(), saved);
+        AfterCommit.run(() -> {
+            itemSearchIndex.update(saved);
+            itemSuggestIndex.update(saved);
+        });
+        outbox.record(OutboxEventType.ITEM_UPDATED, saved.getId());
+        return itemMapper.toItemDto(saved);
     }
 
+    /**
+     * For the owner, comments and last and next bookings are read in parallel when the booking summary cannot
+     * answer from memory.
+     */
     @Override
     public ItemDtoExtended get(Integer itemId, Integer userId) {
         validateItem(itemId);
 
-        Sort sort = Sort.by("start").descending();
+        Item item = itemCache.find(itemId).get();
+        ItemDtoExtended itemDtoExtended = new ItemDtoExtended(itemMapper.toItemDto(item), new ArrayList<>());
 
-        Item item = itemRepository.findById(itemId).get();
-        ItemDto itemDto = itemMapper.toItemDto(item);
+        List<ParallelReads.Branch> branches = new ArrayList<>();
+        branches.add(new ParallelReads.Branch("comments", () -> itemDtoExtended.setComments(
+                new ArrayList<>(commentRepository.findOutputsByItemId(itemId)))));
+        if (Objects.equals(userId, item.getOwner().getId())) {
+            LocalDateTime now = LocalDateTime.now();
+            Runnable bookings = () -> itemBookingSummary.resolve(List.of(itemDtoExtended), now);
+            if (itemBookingSummary.answersFromMemory(itemId, now)) {
+                bookings.run();
+            } else {
+                branches.add(new ParallelReads.Branch("bookings", bookings));
+            }
+        }
+        parallelReads.run("item.get", branches);
+        return itemDtoExtended;
+    }
 
-        List<CommentOutputDto> itemComments = commentRepository.findByItemId(itemId).stream()
-                .map(commentMapper::toCommentOutputDto).collect(Collectors.toList());
+    /**
+     * Identifies the representation returned by {@link #get} without building it: the item version, a summary of its
+     * comments including their authors' versions and, for the owner, ids of the last and next bookings.
+     */
+    @Override
+    public Optional<String> getEtag(Integer itemId, Integer userId) {
+        Optional<Item> optionalItem = itemCache.find(itemId);
+        if (optionalItem.isEmpty()) {
+            return Optional.empty();
+        }
+        Item item = optionalItem.get();
+        CommentsEtagView comments = commentRepository.findEtagView(itemId);
 
-        ItemDtoExtended itemDtoExtended = new ItemDtoExtended(itemDto, itemComments);
+        StringBuilder etag = new StringBuilder("item-").append(itemId).append('-').append(item.getVersion())
+                .append("-c").append(comments.getCount())
+                .append('.').append(comments.getMaxId())
+                .append('.').append(comments.getAuthorVersions());
 
         if (Objects.equals(userId, item.getOwner().getId())) {
-            List<Booking> last = bookingRepository.findByItemIdAndStartIsBeforeAndStatusNot(itemId, LocalDateTime.now(), BookingStatus.REJECTED, sort);
-            if (!last.isEmpty()) {
-                Booking lastBooking = last.get(0);
-                itemDtoExtended.setLastBooking(bookingMapper.toBookingDtoShortOutput(lastBooking));
-            }
-
-            List<Booking> next = bookingRepository.findByItemIdAndStartIsAfterAndStatusNot(itemId, LocalDateTime.now(), BookingStatus.REJECTED, sort.ascending());
-            if (!next.isEmpty()) {
-                Booking nextBooking = next.get(0);
-                itemDtoExtended.setNextBooking(bookingMapper.toBookingDtoShortOutput(nextBooking));
-            }
+            ItemDtoExtended bookings = new ItemDtoExtended();
+            bookings.setId(itemId);
+            itemBookingSummary.resolve(List.of(bookings), LocalDateTime.now());
+            etag.append("-b").append(bookingId(bookings.getLastBooking()))
+                    .append('.').append(bookingId(bookings.getNextBooking()));
         }
-        return itemDtoExtended;
+        return Optional.of(etag.toString());
     }
 
     @Override
-    public List<ItemDtoExtended> getAll(Integer userId) {
-        Sort sort = Sort.by("start").descending();
+    public CursorPage<ItemDtoExtended> getAll(Integer userId, PageParams page) {
+        Window<Item> window = itemRepository.findByOwnerId(userId, page.scrollPosition(false), page.limit(), Sort.by("id"));
 
-        List<ItemDtoExtended> userItems = itemRepository.findByOwnerId(userId).stream()
+        List<ItemDtoExtended> userItems = window.getContent().stream()
                 .map(itemMapper::toItemDto)
                 .map(itemDto -> new ItemDtoExtended(itemDto, null))
-                .map(item -> {
-                    List<Booking> last = bookingRepository.findByItemIdAndStartIsBeforeAndStatusNot(item.getId(), LocalDateTime.now(), BookingStatus.REJECTED, sort);
-                    if (!last.isEmpty()) {
-                        Booking lastBooking = last.get(0);
-                        item.setLastBooking(bookingMapper.toBookingDtoShortOutput(lastBooking));
-                    }
+                .collect(Collectors.toList());
 
-                    List<Booking> next = bookingRepository.findByItemIdAndStartIsAfterAndStatusNot(item.getId(), LocalDateTime.now(), BookingStatus.REJECTED, sort.ascending());
-                    if (!next.isEmpty()) {
-                        Booking nextBooking = next.get(0);
-                        item.setNextBooking(bookingMapper.toBookingDtoShortOutput(nextBooking));
-                    }
-                    return item;
-                }).collect(Collectors.toList());
+        itemBookingSummary.resolve(userItems, LocalDateTime.now());
+        String nextCursor = window.hasNext() && !userItems.isEmpty()
+                ? PageCursor.of(userItems.get(userItems.size() - 1).getId()).encode()
+                : null;
+        return new CursorPage<>(userItems, nextCursor);
+    }
 
-        return userItems;
+    /**
+     * Runs outside the caller's transaction: the calendar reads bookings on the primary in its own one.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ItemAvailabilityDto getAvailability(Integer itemId, Integer userId, LocalDateTime from, LocalDateTime to) {
+        validateUser(userId);
+        validateItem(itemId);
+        if (!from.isBefore(to)) {
+            throw new ValidationDtoException("Начало периода должно быть раньше его конца.");
+        }
+        return itemAvailabilityCalendar.getAvailability(itemId, from, to);
     }
 
     @Override
-    public List<ItemDto> search(Integer userId, String text) {
+    public CursorPage<ItemDto> search(Integer userId, String text, PageParams page) {
         if (text == null || text.isEmpty()) {
-            return new ArrayList<>();
+            return new CursorPage<>(new ArrayList<>(), null);
         }
         String searchQuery = text.toLowerCase();
-        return itemRepository.findAll().stream()
-                .filter(Item::getAvailable)
-                .filter(item -> item.getName().toLowerCase().contains(searchQuery)
-                        || item.getDescription().toLowerCase().contains(searchQuery))
+        int[] candidates = itemSearchIndex.isSelective(searchQuery) ? itemSearchIndex.candidates(searchQuery) : null;
+
+        PageCursor cursor = page.decodeCursor();
+        if (cursor != null && cursor.getStart() != null) {
+            throw new IllegalPageCursorException("Курсор не подходит для этого списка.");
+        }
+        int afterId = cursor == null ? 0 : cursor.getId();
+        int skip = cursor == null ? page.getFrom() : 0;
+
+        List<ItemDto> found = new ArrayList<>();
+        SearchBatch batch;
+        do {
+            batch = nextSearchBatch(candidates, afterId);
+            afterId = batch.lastId();
+            for (ItemView item : batch.items()) {
+                if (!item.getAvailable() || !matches(item, searchQuery)) {
+                    continue;
+                }
+                if (skip > 0) {
+                    skip--;
+                } else if (found.size() <= page.getSize()) {
+                    found.add(itemMapper.toItemDto(item));
+                }
+            }
+        } while (!batch.isLast() && found.size() <= page.getSize());
+
+        if (found.size() <= page.getSize()) {
+            return new CursorPage<>(found, null);
+        }
+        List<ItemDto> content = found.subList(0, page.getSize());
+        return new CursorPage<>(content, PageCursor.of(content.get(content.size() - 1).getId()).encode());
+    }
+
+    /**
+     * Ranked by {@link ItemSearchIndex#similar}, so pages are addressed by offset only. Queries too short to have
+     * a trigram are searched exactly.
+     */
+    @Override
+    public CursorPage<ItemDto> fuzzySearch(Integer userId, String text, PageParams page) {
+        if (text == null || text.isBlank()) {
+            return new CursorPage<>(new ArrayList<>(), null);
+        }
+        String searchQuery = text.strip().toLowerCase();
+        if (!itemSearchIndex.isSelective(searchQuery)) {
+            return search(userId, text, page);
+        }
+        if (page.decodeCursor() != null) {
+            throw new IllegalPageCursorException("Курсор не подходит для нечёткого поиска.");
+        }
+
+        List<ItemSearchIndex.SimilarItem> ranked = itemSearchIndex.similar(searchQuery,
+                fuzzySearchProperties.getMinSimilarity(), page.getFrom() + page.getSize());
+        List<Integer> ids = ranked.subList(Math.min(page.getFrom(), ranked.size()), ranked.size()).stream()
+                .map(ItemSearchIndex.SimilarItem::itemId)
+                .toList();
+        if (ids.isEmpty()) {
+            return new CursorPage<>(new ArrayList<>(), null);
+        }
+        Map<Integer, ItemView> items = itemRepository.findByIdIn(ids, Sort.by("id")).stream()
+                .collect(Collectors.toMap(ItemView::getId, Function.identity()));
+        List<ItemDto> found = ids.stream()
+                .map(items::get)
+                .filter(item -> item != null && item.getAvailable())
                 .map(itemMapper::toItemDto)
                 .collect(Collectors.toList());
+        return new CursorPage<>(found, null);
+    }
+
+    /**
+     * Answered from memory, so no transaction is opened.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<ItemSuggestionDto> suggest(Integer userId, String prefix, int limit) {
+        return itemSuggestIndex.suggest(prefix, limit);
     }
 
     @Override
+    @Transactional
     public CommentOutputDto addComment(Integer itemId, Integer userId, Comment commentInput) {
         validateUser(userId);
         validateItem(itemId);
 
-        Optional<Item> optionalItem = itemRepository.findById(itemId);
+        Optional<Item> optionalItem = itemCache.find(itemId);
         if ((optionalItem.isEmpty())) {
             throw new NotFoundException("Объявление с id " + itemId + " не найдено.");
         }
@@ -177,7 +328,7 @@ public class ItemServiceImpl implements ItemService {
         }
 
         commentInput.setItem(item);
-        commentInput.setAuthor(userRepository.findById(userId).get());
+        commentInput.setAuthor(userCache.find(userId).get());
 
         Comment comment = commentRepository.save(commentInput);
 
@@ -191,12 +342,39 @@ public class ItemServiceImpl implements ItemService {
 
         ItemDto itemDto = get(itemId, userId);
 
-        List<CommentOutputDto> itemComments = commentRepository.findByItemId(itemId).stream()
-                .map(commentMapper::toCommentOutputDto).collect(Collectors.toList());
+        List<CommentOutputDto> itemComments = new ArrayList<>(commentRepository.findOutputsByItemId(itemId));
 
         return new ItemDtoExtended(itemDto, itemComments);
     }
 
+    private String bookingId(BookingDtoShortOutput booking) {
+        return booking == null ? "none" : booking.getId().toString();
+    }
+
+    private SearchBatch nextSearchBatch(int[] candidates, int afterId) {
+        if (candidates == null) {
+            List<ItemView> items = itemRepository.findByAvailableTrueAndIdGreaterThan(afterId, Limit.of(SEARCH_BATCH_SIZE), Sort.by("id"));
+            int lastId = items.isEmpty() ? afterId : items.get(items.size() - 1).getId();
+            return new SearchBatch(items, lastId, items.size() < SEARCH_BATCH_SIZE);
+        }
+
+        int position = Arrays.binarySearch(candidates, afterId + 1);
+        int from = position >= 0 ? position : -position - 1;
+        int to = Math.min(from + SEARCH_BATCH_SIZE, candidates.length);
+        if (from == to) {
+            return new SearchBatch(List.of(), afterId, true);
+        }
+        List<Integer> ids = Arrays.stream(candidates, from, to)
+                .boxed()
+                .collect(Collectors.toList());
+        return new SearchBatch(itemRepository.findByIdIn(ids, Sort.by("id")), candidates[to - 1], to == candidates.length);
+    }
+
+    private boolean matches(ItemView item, String searchQuery) {
+        return item.getName().toLowerCase().contains(searchQuery)
+                || item.getDescription().toLowerCase().contains(searchQuery);
+    }
+
     private void validateItemDto(ItemDto itemDto) {
         if (itemDto.getAvailable() == null || itemDto.getName() == null || itemDto.getName().isEmpty() || itemDto.getDescription() == null) {
             throw new ValidationDtoException("Доступность, название, описание предмета не должны быть пустыми.");
@@ -204,14 +382,17 @@ public class ItemServiceImpl implements ItemService {
     }
 
     private void validateUser(Integer userId) {
-        if (!userRepository.existsById(userId)) {
+        if (!userCache.exists(userId)) {
             throw new NotFoundException("Пользователь с id " + userId + " не существует.");
         }
     }
 
     private void validateItem(Integer itemId) {
-        if (!itemRepository.existsById(itemId)) {
+        if (!itemCache.exists(itemId)) {
             throw new NotFoundException("Предмет с id " + itemId + " не существует.");
         }
     }
+
+    private record SearchBatch(List<ItemView> items, int lastId, boolean isLast) {
+    }
 }
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.monitoring;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Counts connection checkouts for the HTTP request being handled on the current thread.
+ */
+public class ConnectionCountingDataSource extends DelegatingDataSource {
+
+    public ConnectionCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        recordCheckout();
+        return super.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        recordCheckout();
+        return super.getConnection(username, password);
+    }
+
+    private void recordCheckout() {
+        RequestQueryStatistics statistics = RequestQueryStatistics.current();
+        if (statistics != null) {
+            statistics.recordConnection();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.monitoring;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.monitoring")
+public class MonitoringProperties {
+    private int repeatedStatementThreshold = 10;
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+
+@RequiredArgsConstructor
+public class RepositoryMetricsInterceptor implements MethodInterceptor {
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final String repository;
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry == null) {
+            return invocation.proceed();
+        }
+
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "success";
+        try {
+            return invocation.proceed();
+        } catch (Throwable throwable) {
+            outcome = "error";
+            throw throwable;
+        } finally {
+            sample.stop(Timer.builder("shareit.repository.invocations")
+                    .description("Spring Data repository method calls")
+                    .tag("repository", repository)
+                    .tag("method", invocation.getMethod().getName())
+                    .tag("endpoint", RequestQueryStatistics.currentEndpoint())
+                    .tag("outcome", outcome)
+                    .register(registry));
+        }
+    }
+}
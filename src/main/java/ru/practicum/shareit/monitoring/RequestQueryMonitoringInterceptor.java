@@ -0,0 +1,70 @@
+package ru.practicum.shareit.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Counts SQL statements per endpoint and reports requests that repeat one statement shape
+ * more than {@code shareit.monitoring.repeated-statement-threshold} times, which is how N+1 loads look.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RequestQueryMonitoringInterceptor implements HandlerInterceptor {
+    private static final int LOGGED_SQL_LENGTH = 300;
+
+    private final MeterRegistry meterRegistry;
+    private final MonitoringProperties properties;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        RequestQueryStatistics.start(request.getMethod() + " " + (pattern == null ? request.getRequestURI() : pattern));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestQueryStatistics statistics = RequestQueryStatistics.current();
+        RequestQueryStatistics.finish();
+        if (statistics == null) {
+            return;
+        }
+
+        DistributionSummary.builder("shareit.http.sql.statements")
+                .description("SQL statements executed per HTTP request")
+                .tag("endpoint", statistics.getEndpoint())
+                .register(meterRegistry)
+                .record(statistics.getStatementCount());
+        DistributionSummary.builder("shareit.http.db.connections")
+                .description("Connection checkouts per HTTP request")
+                .tag("endpoint", statistics.getEndpoint())
+                .register(meterRegistry)
+                .record(statistics.getConnectionCount());
+
+        for (Map.Entry<String, Integer> statement : statistics.getStatements().entrySet()) {
+            if (statement.getValue() > properties.getRepeatedStatementThreshold()) {
+                Counter.builder("shareit.http.sql.repeated")
+                        .description("Requests that ran one statement shape more times than the threshold")
+                        .tag("endpoint", statistics.getEndpoint())
+                        .register(meterRegistry)
+                        .increment();
+                log.warn("Possible N+1: {} ran the same statement {} times: {}", statistics.getEndpoint(),
+                        statement.getValue(), abbreviate(statement.getKey()));
+            }
+        }
+    }
+
+    private String abbreviate(String sql) {
+        String singleLine = sql.replaceAll("\\s+", " ");
+        return singleLine.length() <= LOGGED_SQL_LENGTH ? singleLine : singleLine.substring(0, LOGGED_SQL_LENGTH) + "...";
+    }
+}
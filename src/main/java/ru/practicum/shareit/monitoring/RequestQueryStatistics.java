@@ -0,0 +1,68 @@
+package ru.practicum.shareit.monitoring;
+
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SQL statements executed and connections checked out while handling the current HTTP request,
+ * statements grouped by their text.
+ * Hibernate binds all values as parameters, so equal text means equal statement shape.
+ * Queries a request runs on other threads are recorded too when those threads {@link #attach} its statistics.
+ */
+@Getter
+public class RequestQueryStatistics {
+    public static final String NO_ENDPOINT = "none";
+    private static final ThreadLocal<RequestQueryStatistics> CURRENT = new ThreadLocal<>();
+
+    private final String endpoint;
+    private final Map<String, Integer> statements = new HashMap<>();
+    private int statementCount;
+    private int connectionCount;
+
+    public RequestQueryStatistics(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public static RequestQueryStatistics start(String endpoint) {
+        RequestQueryStatistics statistics = new RequestQueryStatistics(endpoint);
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    public static RequestQueryStatistics current() {
+        return CURRENT.get();
+    }
+
+    public static String currentEndpoint() {
+        RequestQueryStatistics statistics = CURRENT.get();
+        return statistics == null ? NO_ENDPOINT : statistics.endpoint;
+    }
+
+    public static void finish() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Makes {@code statistics} current on this thread and returns the previous ones, to be restored the same way.
+     */
+    public static RequestQueryStatistics attach(RequestQueryStatistics statistics) {
+        RequestQueryStatistics previous = CURRENT.get();
+        if (statistics == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(statistics);
+        }
+        return previous;
+    }
+
+    public synchronized void recordConnection() {
+        connectionCount++;
+    }
+
+    public synchronized void recordStatement(String sql) {
+        statementCount++;
+        statements.merge(sql, 1, Integer::sum);
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+/**
+ * Records events in the transaction of the change they describe, so an event exists if and only if the change committed.
+ */
+@Component
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class Outbox {
+    private final OutboxEventRepository outboxEventRepository;
+
+    public void record(OutboxEventType type, Integer aggregateId) {
+        outboxEventRepository.save(new OutboxEvent(null, type, aggregateId, LocalDateTime.now()));
+    }
+
+    public void recordAll(OutboxEventType type, Collection<Integer> aggregateIds) {
+        LocalDateTime now = LocalDateTime.now();
+        outboxEventRepository.saveAll(aggregateIds.stream()
+                .map(aggregateId -> new OutboxEvent(null, type, aggregateId, now))
+                .collect(Collectors.toList()));
+    }
+}
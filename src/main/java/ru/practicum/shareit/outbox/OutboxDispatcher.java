@@ -0,0 +1,84 @@
+package ru.practicum.shareit.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.datasource.DataSourceRouting;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Moves outbox rows to the event bus in id order and deletes them once handled. Rows are read oldest first
+ * on every run, skipping those already in the bus, so a row committed after a higher id is still picked up.
+ */
+@Component
+public class OutboxDispatcher {
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxEventBus outboxEventBus;
+    private final OutboxProperties properties;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final Counter dispatched;
+    private final Counter backpressure;
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository, OutboxEventBus outboxEventBus,
+                            OutboxProperties properties, MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxEventBus = outboxEventBus;
+        this.properties = properties;
+        this.dispatched = Counter.builder("shareit.outbox.events.dispatched")
+                .description("Events moved from the outbox table to the event bus")
+                .register(meterRegistry);
+        this.backpressure = Counter.builder("shareit.outbox.backpressure")
+                .description("Dispatches stopped early because the event bus was full")
+                .register(meterRegistry);
+        Gauge.builder("shareit.outbox.in.flight", inFlight, Set::size)
+                .description("Events in the event bus or being handled")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.outbox.poll-interval}")
+    public synchronized void dispatch() {
+        DataSourceRouting.onPrimary(() -> {
+            deleteCompleted();
+            dispatchBatches();
+        });
+    }
+
+    private void deleteCompleted() {
+        List<Long> ids = outboxEventBus.drainCompleted();
+        if (!ids.isEmpty()) {
+            outboxEventRepository.deleteAllByIdInBatch(ids);
+            ids.forEach(inFlight::remove);
+        }
+    }
+
+    private void dispatchBatches() {
+        while (true) {
+            int limit = properties.getBatchSize() + inFlight.size();
+            List<OutboxEvent> batch = outboxEventRepository.findAllByOrderByIdAsc(Limit.of(limit));
+            int offered = 0;
+            boolean full = false;
+            for (OutboxEvent event : batch) {
+                if (!inFlight.add(event.getId())) {
+                    continue;
+                }
+                if (!outboxEventBus.offer(event)) {
+                    inFlight.remove(event.getId());
+                    backpressure.increment();
+                    full = true;
+                    break;
+                }
+                offered++;
+            }
+            dispatched.increment(offered);
+            if (full || offered == 0 || batch.size() < limit) {
+                return;
+            }
+        }
+    }
+}
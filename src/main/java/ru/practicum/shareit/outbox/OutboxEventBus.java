@@ -0,0 +1,119 @@
+package ru.practicum.shareit.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Bounded in-process queue between the outbox dispatcher and event handlers. {@link #offer} never blocks:
+ * when the queue is full the event stays in the outbox table until a later dispatch.
+ */
+@Slf4j
+@Component
+public class OutboxEventBus implements SmartInitializingSingleton, DisposableBean {
+    private final List<OutboxEventHandler> handlers;
+    private final OutboxProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final BlockingQueue<OutboxEvent> queue;
+    private final Queue<Long> completed = new ConcurrentLinkedQueue<>();
+    private final Timer lag;
+    private ExecutorService consumers;
+
+    public OutboxEventBus(List<OutboxEventHandler> handlers, OutboxProperties properties, MeterRegistry meterRegistry) {
+        this.handlers = handlers;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.lag = Timer.builder("shareit.outbox.lag")
+                .description("Time from writing an event to the outbox until its handlers finished")
+                .register(meterRegistry);
+        Gauge.builder("shareit.outbox.queue.size", queue, BlockingQueue::size)
+                .description("Events waiting in the in-process queue")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        consumers = Executors.newFixedThreadPool(properties.getConsumers(), runnable -> {
+            Thread thread = new Thread(runnable, "outbox-consumer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < properties.getConsumers(); i++) {
+            consumers.execute(this::consume);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (consumers != null) {
+            consumers.shutdownNow();
+        }
+    }
+
+    public boolean offer(OutboxEvent event) {
+        return queue.offer(event);
+    }
+
+    /**
+     * Ids of events whose handlers have finished since the previous call.
+     */
+    public List<Long> drainCompleted() {
+        List<Long> ids = new ArrayList<>();
+        Long id;
+        while ((id = completed.poll()) != null) {
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    private void consume() {
+        while (!Thread.currentThread().isInterrupted()) {
+            OutboxEvent event;
+            try {
+                event = queue.take();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            process(event);
+        }
+    }
+
+    private void process(OutboxEvent event) {
+        String outcome = "success";
+        for (OutboxEventHandler handler : handlers) {
+            try {
+                handler.handle(event);
+            } catch (RuntimeException exception) {
+                outcome = "failure";
+                log.error("Outbox event {} {} failed in {}", event.getId(), event.getType(),
+                        handler.getClass().getSimpleName(), exception);
+            }
+        }
+        lag.record(Duration.between(event.getCreated(), LocalDateTime.now()));
+        Counter.builder("shareit.outbox.events.processed")
+                .description("Events passed to all handlers")
+                .tag("type", event.getType().name())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+        completed.add(event.getId());
+    }
+}
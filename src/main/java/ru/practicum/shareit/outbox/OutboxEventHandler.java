@@ -0,0 +1,9 @@
+package ru.practicum.shareit.outbox;
+
+/**
+ * Side effect of a committed change. Handlers run on the event bus threads, at least once per event,
+ * so they must tolerate duplicates after a restart.
+ */
+public interface OutboxEventHandler {
+    void handle(OutboxEvent event);
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.outbox;
+
+public enum OutboxEventType {
+    BOOKING_CREATED,
+    BOOKING_APPROVED,
+    BOOKING_REJECTED,
+    ITEM_CREATED,
+    ITEM_UPDATED
+}
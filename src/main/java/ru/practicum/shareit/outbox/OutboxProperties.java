@@ -0,0 +1,12 @@
+package ru.practicum.shareit.outbox;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.outbox")
+public class OutboxProperties {
+    private int batchSize = 100;
+    private int queueCapacity = 1000;
+    private int consumers = 2;
+}
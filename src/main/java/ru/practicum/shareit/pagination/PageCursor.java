@@ -0,0 +1,69 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.ScrollPosition;
+import ru.practicum.shareit.exception.IllegalPageCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opaque keyset position: the sort key of the last returned row and its id as a tie-breaker.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class PageCursor {
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime start;
+    private final Integer id;
+
+    public static PageCursor of(Integer id) {
+        return new PageCursor(null, id);
+    }
+
+    public static PageCursor of(LocalDateTime start, Integer id) {
+        return new PageCursor(start, id);
+    }
+
+    public static PageCursor decode(String value) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            if (separator < 0) {
+                return of(Integer.valueOf(decoded));
+            }
+            return of(LocalDateTime.parse(decoded.substring(0, separator)),
+                    Integer.valueOf(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException exception) {
+            throw new IllegalPageCursorException("Некорректный курсор страницы " + value);
+        }
+    }
+
+    public String encode() {
+        String value = start == null ? String.valueOf(id) : start + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public ScrollPosition toScrollPosition() {
+        return toScrollPosition("start");
+    }
+
+    /**
+     * Keyset position for a list sorted by the given time property and id.
+     */
+    public ScrollPosition toScrollPosition(String startProperty) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        if (start != null) {
+            keys.put(startProperty, start);
+        }
+        keys.put("id", id);
+        return ScrollPosition.forward(keys);
+    }
+}
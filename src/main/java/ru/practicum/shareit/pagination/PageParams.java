@@ -0,0 +1,69 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import ru.practicum.shareit.exception.IllegalPageCursorException;
+
+@Data
+@AllArgsConstructor
+public class PageParams {
+    public static final String DEFAULT_FROM = "0";
+    public static final String DEFAULT_SIZE = "100";
+    public static final long MAX_SIZE = 1000;
+
+    private int from;
+    private int size;
+    private String cursor;
+
+    public static PageParams of(int from, int size) {
+        return new PageParams(from, size, null);
+    }
+
+    public PageCursor decodeCursor() {
+        return cursor == null || cursor.isBlank() ? null : PageCursor.decode(cursor);
+    }
+
+    public Limit limit() {
+        return Limit.of(size);
+    }
+
+    /**
+     * Keyset position after the cursor when one is given, otherwise the plain offset {@code from}.
+     */
+    public ScrollPosition scrollPosition(boolean sortedByStart) {
+        PageCursor pageCursor = cursor(sortedByStart);
+        if (pageCursor != null) {
+            return pageCursor.toScrollPosition();
+        }
+        return offsetPosition();
+    }
+
+    /**
+     * Same as {@link #scrollPosition(boolean)} for a list sorted by the given time property and id.
+     */
+    public ScrollPosition scrollPosition(String startProperty) {
+        PageCursor pageCursor = cursor(true);
+        if (pageCursor != null) {
+            return pageCursor.toScrollPosition(startProperty);
+        }
+        return offsetPosition();
+    }
+
+    public PageCursor cursor(boolean sortedByStart) {
+        PageCursor pageCursor = decodeCursor();
+        if (pageCursor != null && sortedByStart != (pageCursor.getStart() != null)) {
+            throw new IllegalPageCursorException("Курсор не подходит для этого списка.");
+        }
+        return pageCursor;
+    }
+
+    public int offset() {
+        return decodeCursor() == null ? from : 0;
+    }
+
+    private ScrollPosition offsetPosition() {
+        return from == 0 ? ScrollPosition.keyset() : ScrollPosition.offset(from - 1);
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.practicum.shareit.concurrency.ConcurrencyLimitFilter;
+
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "shareit.rate-limit", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig implements WebMvcConfigurer {
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter;
+
+    @Bean
+    public RateLimiter rateLimiter() {
+        return new RateLimiter(properties.getCapacity(), properties.getRefillPerSecond(), properties.getIdleTimeout(),
+                properties.getMaxClients(), System::nanoTime);
+    }
+
+    @Bean
+    public RateLimitInterceptor rateLimitInterceptor() {
+        return new RateLimitInterceptor(rateLimiter(), properties, concurrencyLimitFilter.getFilter(), meterRegistry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // ahead of the other interceptors, so a rejected request costs as little as possible
+        registry.addInterceptor(rateLimitInterceptor())
+                .excludePathPatterns("/actuator/**")
+                .order(Ordered.HIGHEST_PRECEDENCE);
+    }
+}
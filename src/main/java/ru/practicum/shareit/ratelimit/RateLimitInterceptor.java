@@ -0,0 +1,106 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.concurrency.ConcurrencyLimitFilter;
+import ru.practicum.shareit.exception.ServiceOverloadedException;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Charges every request the cost of its endpoint against the bucket of its {@code X-Sharer-User-Id}, or of its
+ * remote address when the header is missing, and answers 429 once the bucket is dry. Before charging it sheds load
+ * by the in-flight count of {@link ConcurrencyLimitFilter}, which counts requests in every profile: beyond the
+ * filter's own limit, or {@code max-in-flight} when the filter does not limit, new requests get 503, and requests
+ * costing more than {@code default-cost} are shed already at {@code expensive-share} of it, so cheap reads keep
+ * working longest.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+    static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final RateLimiter rateLimiter;
+    private final Map<String, Integer> costs = new HashMap<>();
+    private final int defaultCost;
+    private final ConcurrencyLimitFilter concurrencyLimit;
+    private final int maxInFlight;
+    private final int expensiveMaxInFlight;
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitInterceptor(RateLimiter rateLimiter, RateLimitProperties properties,
+                                ConcurrencyLimitFilter concurrencyLimit, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.defaultCost = properties.getDefaultCost();
+        for (RateLimitProperties.EndpointCost cost : properties.getCosts()) {
+            costs.put(cost.getEndpoint(), cost.getCost());
+        }
+        int highestCost = costs.values().stream().reduce(defaultCost, Math::max);
+        if (defaultCost < 1 || costs.values().stream().anyMatch(cost -> cost < 1)
+                || highestCost > rateLimiter.capacity()) {
+            throw new IllegalArgumentException("Endpoint costs must be between 1 and the bucket capacity "
+                    + rateLimiter.capacity());
+        }
+        this.concurrencyLimit = concurrencyLimit;
+        this.maxInFlight = concurrencyLimit.maxInFlight() > 0
+                ? concurrencyLimit.maxInFlight()
+                : properties.getMaxInFlight();
+        this.expensiveMaxInFlight = (int) Math.ceil(maxInFlight * properties.getExpensiveShare());
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("shareit.rate-limit.clients", rateLimiter, RateLimiter::trackedClients)
+                .description("Clients with a token bucket")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            // already charged when the request first came in
+            return true;
+        }
+        String endpoint = endpoint(request);
+        int cost = costs.getOrDefault(endpoint, defaultCost);
+
+        // the filter's count includes this request
+        int current = concurrencyLimit.inFlight();
+        if (maxInFlight > 0 && current > (cost > defaultCost ? expensiveMaxInFlight : maxInFlight)) {
+            count(endpoint, "shed");
+            throw new ServiceOverloadedException();
+        }
+        long waitNanos = rateLimiter.tryTake(client(request), cost);
+        if (waitNanos > 0) {
+            count(endpoint, "limited");
+            throw new TooManyRequestsException(Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)
+                    / TimeUnit.SECONDS.toNanos(1)));
+        }
+        count(endpoint, "allowed");
+        return true;
+    }
+
+    private void count(String endpoint, String outcome) {
+        Counter.builder("shareit.rate-limit.requests")
+                .description("Requests by rate limiting outcome")
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern == null ? request.getRequestURI() : pattern);
+    }
+
+    private static String client(HttpServletRequest request) {
+        String userId = request.getHeader(USER_HEADER);
+        return userId == null || userId.isBlank() ? "address:" + request.getRemoteAddr() : "user:" + userId.trim();
+    }
+}
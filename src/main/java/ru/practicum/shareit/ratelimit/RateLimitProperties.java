@@ -0,0 +1,45 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = false;
+    /**
+     * Tokens a client may spend in one burst.
+     */
+    private int capacity = 100;
+    private double refillPerSecond = 20;
+    private int defaultCost = 1;
+    /**
+     * Endpoints that cost more than {@code default-cost}, keyed by method and mapping pattern,
+     * e.g. {@code GET /items/search}.
+     */
+    private List<EndpointCost> costs = new ArrayList<>();
+    /**
+     * Buckets untouched for this long are dropped. Never shorter than a full refill, so a dropped bucket was full anyway.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    private long maxClients = 100_000;
+    /**
+     * Requests in flight beyond which new ones are shed with 503 while {@code shareit.concurrency.enabled} is off,
+     * 0 to never shed. With it on, the concurrency limit is used instead.
+     */
+    private int maxInFlight = 0;
+    /**
+     * Share of the in-flight limit beyond which requests costing more than {@code default-cost} are shed already.
+     */
+    private double expensiveShare = 0.75;
+
+    @Data
+    public static class EndpointCost {
+        private String endpoint;
+        private int cost;
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets per client. A bucket is a single {@link AtomicLong} holding the {@link System#nanoTime()} instant
+ * at which it will be full again, the GCRA form of a token bucket: taking tokens moves that instant forward by their
+ * refill time, which is allowed while it stays within one full refill of now. A take is one compare-and-set,
+ * so requests of one client never wait on each other.
+ */
+public class RateLimiter {
+    private final int capacity;
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final LongSupplier clock;
+    private final Cache<String, AtomicLong> buckets;
+
+    public RateLimiter(int capacity, double refillPerSecond, Duration idleTimeout, long maxClients, LongSupplier clock) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Bucket capacity and refill rate must be positive");
+        }
+        this.capacity = capacity;
+        this.nanosPerToken = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / refillPerSecond));
+        this.burstNanos = nanosPerToken * capacity;
+        this.clock = clock;
+        Duration fullRefill = Duration.ofNanos(burstNanos);
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(idleTimeout.compareTo(fullRefill) < 0 ? fullRefill : idleTimeout)
+                .maximumSize(maxClients)
+                .ticker(clock::getAsLong)
+                .build();
+    }
+
+    /**
+     * Takes {@code cost} tokens from the client's bucket.
+     *
+     * @return 0 if they were taken, otherwise nanoseconds until the bucket will hold them
+     */
+    public long tryTake(String client, int cost) {
+        long now = clock.getAsLong();
+        AtomicLong fullAt = buckets.get(client, key -> new AtomicLong(now));
+        long refill = cost * nanosPerToken;
+        while (true) {
+            long current = fullAt.get();
+            long next = (current - now > 0 ? current : now) + refill;
+            long shortfall = next - now - burstNanos;
+            if (shortfall > 0) {
+                return shortfall;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public long trackedClients() {
+        return buckets.estimatedSize();
+    }
+
+    void cleanUp() {
+        buckets.cleanUp();
+    }
+}
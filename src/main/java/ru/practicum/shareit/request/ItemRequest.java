@@ -1,15 +0,0 @@
-package ru.practicum.shareit.request;
-
-import ru.practicum.shareit.user.model.User;
-
-import java.time.LocalDateTime;
-
-/**
- * TODO Sprint create-item-requests.
- */
-public class ItemRequest {
-    private Integer id;
-    private String description;
-    private User requestor;
-    private LocalDateTime created;
-}
@@ -1,12 +1,58 @@
 package ru.practicum.shareit.request;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestDtoExtended;
+import ru.practicum.shareit.request.service.ItemRequestService;
+
+import java.util.List;
 
-/**
- * TODO Sprint create-item-requests.
- */
 @RestController
 @RequestMapping(path = "/requests")
+@RequiredArgsConstructor
 public class ItemRequestController {
+    private final ItemRequestService itemRequestService;
+
+    @PostMapping
+    public ItemRequestDto add(@RequestHeader("X-Sharer-User-Id") @NotNull Integer userId,
+                              @Valid @RequestBody ItemRequestDto itemRequestDto) {
+        return itemRequestService.add(userId, itemRequestDto);
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ItemRequestDtoExtended>> getOwn(@RequestHeader("X-Sharer-User-Id") @NotNull Integer userId,
+                                                               @RequestParam(defaultValue = PageParams.DEFAULT_FROM) @PositiveOrZero Integer from,
+                                                               @RequestParam(defaultValue = PageParams.DEFAULT_SIZE) @Positive @Max(PageParams.MAX_SIZE) Integer size,
+                                                               @RequestParam(required = false) String cursor) {
+        return itemRequestService.getOwn(userId, new PageParams(from, size, cursor)).toResponseEntity();
+    }
+
+    @GetMapping("/all")
+    public ResponseEntity<List<ItemRequestDtoExtended>> getOthers(@RequestHeader("X-Sharer-User-Id") @NotNull Integer userId,
+                                                                  @RequestParam(defaultValue = PageParams.DEFAULT_FROM) @PositiveOrZero Integer from,
+                                                                  @RequestParam(defaultValue = PageParams.DEFAULT_SIZE) @Positive @Max(PageParams.MAX_SIZE) Integer size,
+                                                                  @RequestParam(required = false) String cursor) {
+        return itemRequestService.getOthers(userId, new PageParams(from, size, cursor)).toResponseEntity();
+    }
+
+    @GetMapping("/{requestId}")
+    public ItemRequestDtoExtended get(@PathVariable @NotNull @Positive Integer requestId,
+                                      @RequestHeader("X-Sharer-User-Id") @NotNull Integer userId) {
+        return itemRequestService.get(requestId, userId);
+    }
 }
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.request;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.util.List;
+
+@Repository
+public interface ItemRequestRepository extends JpaRepository<ItemRequest, Integer> {
+    Window<ItemRequest> findByRequestorId(Integer requestorId, ScrollPosition position, Limit limit, Sort sort);
+
+    Window<ItemRequest> findByRequestorIdNot(Integer requestorId, ScrollPosition position, Limit limit, Sort sort);
+
+    @Query("select r.id from ItemRequest r where r.requestorId = :requestorId")
+    List<Integer> findIdsByRequestorId(Integer requestorId);
+}
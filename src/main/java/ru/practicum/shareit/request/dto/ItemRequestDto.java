@@ -1,7 +1,22 @@
 package ru.practicum.shareit.request.dto;
 
-/**
- * TODO Sprint create-item-requests.
- */
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.validator.constraints.Length;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
 public class ItemRequestDto {
+    private Integer id;
+
+    @NotBlank
+    @Length(max = 512)
+    private String description;
+
+    private LocalDateTime created;
 }
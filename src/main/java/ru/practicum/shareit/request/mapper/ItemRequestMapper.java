@@ -0,0 +1,19 @@
+package ru.practicum.shareit.request.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestDtoExtended;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface ItemRequestMapper {
+    ItemRequestDto toItemRequestDto(ItemRequest itemRequest);
+
+    @Mapping(target = "items", ignore = true)
+    ItemRequestDtoExtended toItemRequestDtoExtended(ItemRequest itemRequest);
+
+    @Mapping(target = "requestorId", ignore = true)
+    ItemRequest toItemRequest(ItemRequestDto itemRequestDto);
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.request.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.validator.constraints.Length;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "requests")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemRequest {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @NotBlank
+    @Length(max = 512)
+    private String description;
+
+    @Column(name = "requesting_user_id")
+    private Integer requestorId;
+
+    private LocalDateTime created;
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.request.service;
+
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestDtoExtended;
+
+public interface ItemRequestService {
+    ItemRequestDto add(Integer userId, ItemRequestDto itemRequestDto);
+
+    CursorPage<ItemRequestDtoExtended> getOwn(Integer userId, PageParams page);
+
+    CursorPage<ItemRequestDtoExtended> getOthers(Integer userId, PageParams page);
+
+    ItemRequestDtoExtended get(Integer requestId, Integer userId);
+}
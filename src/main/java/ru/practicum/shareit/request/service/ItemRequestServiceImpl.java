@@ -0,0 +1,107 @@
+package ru.practicum.shareit.request.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.cache.EntityCache;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.PageCursor;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestDtoExtended;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ItemRequestServiceImpl implements ItemRequestService {
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("created"), Sort.Order.desc("id"));
+
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestMapper itemRequestMapper;
+    private final EntityCache<User> userCache;
+
+    @Override
+    @Transactional
+    public ItemRequestDto add(Integer userId, ItemRequestDto itemRequestDto) {
+        validateUser(userId);
+
+        ItemRequest itemRequest = itemRequestMapper.toItemRequest(itemRequestDto);
+        itemRequest.setId(null);
+        itemRequest.setRequestorId(userId);
+        itemRequest.setCreated(LocalDateTime.now());
+        return itemRequestMapper.toItemRequestDto(itemRequestRepository.save(itemRequest));
+    }
+
+    @Override
+    public CursorPage<ItemRequestDtoExtended> getOwn(Integer userId, PageParams page) {
+        validateUser(userId);
+        return toPage(itemRequestRepository.findByRequestorId(userId, page.scrollPosition("created"), page.limit(), NEWEST_FIRST));
+    }
+
+    @Override
+    public CursorPage<ItemRequestDtoExtended> getOthers(Integer userId, PageParams page) {
+        validateUser(userId);
+        return toPage(itemRequestRepository.findByRequestorIdNot(userId, page.scrollPosition("created"), page.limit(), NEWEST_FIRST));
+    }
+
+    @Override
+    public ItemRequestDtoExtended get(Integer requestId, Integer userId) {
+        validateUser(userId);
+
+        ItemRequest itemRequest = itemRequestRepository.findById(requestId)
+                .orElseThrow(() -> new NotFoundException("Запрос с id " + requestId + " не существует."));
+        ItemRequestDtoExtended itemRequestDto = itemRequestMapper.toItemRequestDtoExtended(itemRequest);
+        attachItems(List.of(itemRequestDto));
+        return itemRequestDto;
+    }
+
+    private CursorPage<ItemRequestDtoExtended> toPage(Window<ItemRequest> window) {
+        List<ItemRequestDtoExtended> requests = window.getContent().stream()
+                .map(itemRequestMapper::toItemRequestDtoExtended)
+                .collect(Collectors.toList());
+        attachItems(requests);
+
+        String nextCursor = null;
+        if (window.hasNext() && !requests.isEmpty()) {
+            ItemRequestDtoExtended last = requests.get(requests.size() - 1);
+            nextCursor = PageCursor.of(last.getCreated(), last.getId()).encode();
+        }
+        return new CursorPage<>(requests, nextCursor);
+    }
+
+    /**
+     * Loads the items offered in response to all the given requests with one query.
+     */
+    private void attachItems(List<ItemRequestDtoExtended> requests) {
+        if (requests.isEmpty()) {
+            return;
+        }
+        Map<Integer, ItemRequestDtoExtended> requestsById = requests.stream()
+                .collect(Collectors.toMap(ItemRequestDto::getId, Function.identity()));
+        for (ItemDto item : itemRepository.findAnswers(requestsById.keySet())) {
+            requestsById.get(item.getRequestId()).getItems().add(item);
+        }
+    }
+
+    private void validateUser(Integer userId) {
+        if (!userCache.exists(userId)) {
+            throw new NotFoundException("Пользователь с id " + userId + " не существует.");
+        }
+    }
+}
@@ -4,9 +4,12 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.util.Optional;
+
 
 @RestController
 @RequestMapping(path = "/users")
@@ -15,7 +18,11 @@ public class UserController {
     private UserService userService;
 
     @GetMapping("/{id}")
-    public UserDto getUserById(@PathVariable @Positive int id) {
+    public UserDto getUserById(@PathVariable @Positive int id, WebRequest request) {
+        Optional<String> etag = userService.getEtag(id);
+        if (etag.isPresent() && request.checkNotModified(etag.get())) {
+            return null;
+        }
         return userService.get(id);
     }
 
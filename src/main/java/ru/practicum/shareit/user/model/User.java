@@ -32,4 +32,7 @@ public class User {
     @Email
     @Pattern(regexp = "^[\\w-\\.]+@([\\w-]+\\.)+[\\w-]{2,4}$")
     private String email;
+
+    @Version
+    private Integer version;
 }
\ No newline at end of file
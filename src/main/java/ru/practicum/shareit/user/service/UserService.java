@@ -2,6 +2,8 @@ package ru.practicum.shareit.user.service;
 
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.Optional;
+
 
 public interface UserService {
     UserDto add(UserDto userDto);
@@ -10,5 +12,7 @@ public interface UserService {
 
     UserDto get(int id);
 
+    Optional<String> getEtag(int id);
+
     void delete(int id);
 }
\ No newline at end of file
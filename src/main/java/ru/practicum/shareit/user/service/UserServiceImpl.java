@@ -1,12 +1,28 @@
 package ru.practicum.shareit.user.service;
 
 
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.service.BookingConflictIndex;
+import ru.practicum.shareit.cache.AfterCommit;
+import ru.practicum.shareit.cache.EntityCache;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.SameParametersExistsException;
 import ru.practicum.shareit.exception.ValidationDtoException;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSuggestIndex;
+import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
@@ -16,10 +32,22 @@ import java.util.*;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
     private final UserMapper userMapper;
     private final UserRepository userRepository;
-
+    private final BookingRepository bookingRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemSuggestIndex itemSuggestIndex;
+    private final BookingConflictIndex bookingConflictIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityCache<User> userCache;
+    private final EntityCache<Item> itemCache;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Transactional
     public UserDto add(@Valid UserDto userDto) {
         validateUserDto(userDto);
         User user = userMapper.fromUserDto(userDto);
@@ -28,6 +56,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public UserDto update(int userId, UserDto userDto) {
         validateUserById(userId);
 
@@ -44,7 +73,8 @@ public class UserServiceImpl implements UserService {
             user.setName(userDto.getName());
         }
 
-        user = userRepository.save(user);
+        user = userRepository.saveAndFlush(user);
+        userCache.putAfterCommit(user.getId(), user);
 
         return userMapper.toUserDto(user);
     }
@@ -52,14 +82,44 @@ public class UserServiceImpl implements UserService {
     @Override
     public UserDto get(int id) {
         validateUserById(id);
-        Optional<User> user = userRepository.findById(id);
+        Optional<User> user = userCache.find(id);
         return user.map(userMapper::toUserDto).orElse(null);
     }
 
     @Override
+    public Optional<String> getEtag(int id) {
+        return userCache.find(id).map(user -> "user-" + id + "-" + user.getVersion());
+    }
+
+    @Override
+    @Transactional
     public void delete(int id) {
         validateUserById(id);
+        bookingConflictIndex.removeBooker(id);
+        List<Integer> bookedItemIds = bookingRepository.findItemIdsByParticipantId(id);
+        Set<Integer> requestIds = new HashSet<>(itemRequestRepository.findIdsByRequestorId(id));
+        List<Integer> ownedItemIds = itemRepository.findIdsByOwnerId(id);
         userRepository.deleteById(id);
+        AfterCommit.run(() -> {
+            userCache.evict(id);
+            itemCache.evictIf(item -> item.getOwner() != null && item.getOwner().getId().equals(id)
+                    || requestIds.contains(item.getRequestId()));
+            evictCascadedRows();
+            ownedItemIds.forEach(itemId -> {
+                itemSearchIndex.remove(itemId);
+                itemSuggestIndex.remove(itemId);
+            });
+        });
+        eventPublisher.publishEvent(new BookingChangedEvent(bookedItemIds));
+    }
+
+    /**
+     * Comments of a deleted user and on their items are removed by ON DELETE CASCADE, which Hibernate does not see.
+     */
+    private void evictCascadedRows() {
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        cache.evict(Comment.class);
+        cache.evictQueryRegion(CommentRepository.ITEM_COMMENTS_REGION);
     }
 
     private void validateUserDto(UserDto userDto) {
@@ -69,7 +129,7 @@ public class UserServiceImpl implements UserService {
     }
 
     private void validateUserById(Integer userId) {
-        if (!userRepository.existsById(userId)) {
+        if (!userCache.exists(userId)) {
             throw new NotFoundException("Пользователя с id = " + userId + " не существует.");
         }
     }
@@ -1,24 +1,28 @@
-DROP TABLE IF EXISTS users, items, requests, bookings, comments CASCADE;
+DROP TABLE IF EXISTS users, items, requests, bookings, comments, outbox_events CASCADE;
 
 CREATE TABLE IF NOT EXISTS users (
     id integer GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
     name varchar(255) NOT NULL,
     email varchar(50) NOT NULL,
+    version integer NOT NULL DEFAULT 0,
     CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
 );
 
-CREATE TABLE IF NOT EXISTS items (
+CREATE TABLE IF NOT EXISTS requests (
     id integer GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
-    name varchar(255) NOT NULL,
     description varchar(512) NOT NULL,
-    is_available boolean NOT NULL,
-    owner_id integer REFERENCES users(id) ON DELETE CASCADE
+    requesting_user_id integer REFERENCES users(id) ON DELETE CASCADE,
+    created TIMESTAMP WITHOUT TIME ZONE NOT NULL
 );
 
-CREATE TABLE IF NOT EXISTS requests (
+CREATE TABLE IF NOT EXISTS items (
     id integer GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
+    name varchar(255) NOT NULL,
     description varchar(512) NOT NULL,
-    requesting_user_id integer REFERENCES users(id) ON DELETE CASCADE
+    is_available boolean NOT NULL,
+    owner_id integer REFERENCES users(id) ON DELETE CASCADE,
+    request_id integer REFERENCES requests(id) ON DELETE SET NULL,
+    version integer NOT NULL DEFAULT 0
 );
 
 CREATE TABLE IF NOT EXISTS bookings (
@@ -27,7 +31,8 @@ CREATE TABLE IF NOT EXISTS bookings (
     end_time TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     item_id integer REFERENCES items(id) ON DELETE CASCADE,
     booker_id integer REFERENCES users(id) ON DELETE CASCADE,
-    status varchar(10) NOT NULL
+    status varchar(10) NOT NULL,
+    version integer NOT NULL DEFAULT 0
 );
 
 CREATE TABLE IF NOT EXISTS comments (
@@ -36,4 +41,31 @@ CREATE TABLE IF NOT EXISTS comments (
     item_id integer REFERENCES items(id) ON DELETE CASCADE,
     author_id integer REFERENCES users(id) ON DELETE CASCADE,
     created TIMESTAMP WITHOUT TIME ZONE
-);
\ No newline at end of file
+);
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
+    event_type varchar(20) NOT NULL,
+    aggregate_id integer NOT NULL,
+    created TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS items_owner_idx ON items (owner_id, id);
+
+CREATE INDEX IF NOT EXISTS items_request_idx ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS requests_requesting_user_idx ON requests (requesting_user_id, created DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS requests_created_idx ON requests (created DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings (booker_id, start_time, id);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_status_start_idx ON bookings (booker_id, status, start_time, id);
+
+CREATE INDEX IF NOT EXISTS bookings_item_start_idx ON bookings (item_id, start_time, status);
+
+CREATE INDEX IF NOT EXISTS bookings_item_status_start_idx ON bookings (item_id, status, start_time);
+
+CREATE INDEX IF NOT EXISTS bookings_item_end_idx ON bookings (item_id, end_time, start_time, status);
+
+CREATE INDEX IF NOT EXISTS comments_item_idx ON comments (item_id);
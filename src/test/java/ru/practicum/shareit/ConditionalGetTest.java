@@ -0,0 +1,140 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDtoInput;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemBookingSummary;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConditionalGetTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemBookingSummary itemBookingSummary;
+
+    private UserDto owner;
+    private UserDto booker;
+    private ItemDto item;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = String.valueOf(System.nanoTime() % 1_000_000);
+        owner = userService.add(UserDto.builder().name("owner").email("owner" + suffix + "@etag.test").build());
+        booker = userService.add(UserDto.builder().name("booker").email("booker" + suffix + "@etag.test").build());
+        item = itemService.add(owner.getId(), new ItemDto(null, "ladder", "folding ladder", true, null));
+    }
+
+    @Test
+    void userEtagChangesOnUpdate() throws Exception {
+        String path = "/users/" + owner.getId();
+        String etag = etag(path, owner.getId());
+        assertNotModified(path, owner.getId(), etag);
+
+        userService.update(owner.getId(), UserDto.builder().name("renamed").build());
+
+        assertNotEquals(etag, etag(path, owner.getId()));
+    }
+
+    @Test
+    void itemEtagChangesOnCommentAndBookingChanges() throws Exception {
+        String path = "/items/" + item.getId();
+        String ownerEtag = etag(path, owner.getId());
+        String bookerEtag = etag(path, booker.getId());
+        assertNotEquals(ownerEtag, bookerEtag);
+        assertNotModified(path, owner.getId(), ownerEtag);
+
+        Booking past = new Booking();
+        past.setItem(itemRepository.findById(item.getId()).get());
+        past.setBooker(userRepository.findById(booker.getId()).get());
+        past.setStart(LocalDateTime.now().minusDays(2));
+        past.setEnd(LocalDateTime.now().minusDays(1));
+        past.setStatus(BookingStatus.APPROVED);
+        bookingRepository.save(past);
+        itemBookingSummary.refresh(List.of(item.getId()));
+        String withLastBooking = etag(path, owner.getId());
+        assertNotEquals(ownerEtag, withLastBooking);
+        assertNotModified(path, booker.getId(), bookerEtag);
+
+        Comment comment = new Comment();
+        comment.setText("Tall enough");
+        itemService.addComment(item.getId(), booker.getId(), comment);
+        String withComment = etag(path, owner.getId());
+        assertNotEquals(withLastBooking, withComment);
+        assertNotEquals(bookerEtag, etag(path, booker.getId()));
+
+        userService.update(booker.getId(), UserDto.builder().name("renamed").build());
+        assertNotEquals(withComment, etag(path, owner.getId()));
+    }
+
+    @Test
+    void bookingEtagChangesOnApprovalAndIsHiddenFromOthers() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Integer bookingId = bookingService.add(booker.getId(),
+                new BookingDtoInput(null, item.getId(), start, start.plusHours(2))).getId();
+        String path = "/bookings/" + bookingId;
+        String etag = etag(path, booker.getId());
+        assertNotModified(path, owner.getId(), etag);
+
+        UserDto stranger = userService.add(UserDto.builder().name("stranger").email("stranger" + bookingId + "@etag.test").build());
+        mockMvc.perform(get(path).header(USER_HEADER, stranger.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotFound());
+
+        bookingService.setApprove(bookingId, owner.getId(), true);
+
+        assertNotEquals(etag, etag(path, booker.getId()));
+    }
+
+    private String etag(String path, Integer userId) throws Exception {
+        String etag = mockMvc.perform(get(path).header(USER_HEADER, userId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        return etag;
+    }
+
+    private void assertNotModified(String path, Integer userId, String etag) throws Exception {
+        mockMvc.perform(get(path).header(USER_HEADER, userId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+}
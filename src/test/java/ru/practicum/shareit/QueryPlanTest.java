@@ -0,0 +1,100 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.BookingParticipant;
+import ru.practicum.shareit.booking.model.BookingSearchMode;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingConflictIndex;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.monitoring.RequestQueryStatistics;
+import ru.practicum.shareit.pagination.PageCursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs EXPLAIN for the SQL Hibernate generates for request-path repository queries
+ * and fails when any table in the plan is read by a full scan.
+ */
+@SpringBootTest
+class QueryPlanTest {
+    private static final Set<String> EXPECTED_INDEXES = Set.of("ITEMS_OWNER_IDX", "REQUESTS_REQUESTING_USER_IDX",
+            "BOOKINGS_BOOKER_START_IDX", "BOOKINGS_BOOKER_STATUS_START_IDX", "BOOKINGS_ITEM_START_IDX",
+            "BOOKINGS_ITEM_STATUS_START_IDX", "BOOKINGS_ITEM_END_IDX", "COMMENTS_ITEM_IDX");
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void schemaDefinesIndexes() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "select index_name from information_schema.indexes where table_schema = 'PUBLIC'", String.class);
+
+        assertTrue(indexes.containsAll(EXPECTED_INDEXES), "Missing indexes, found " + indexes);
+    }
+
+    @Test
+    void bookingListsUseIndexes() {
+        LocalDateTime now = LocalDateTime.now();
+        PageCursor cursor = PageCursor.of(now, 1);
+        for (BookingParticipant participant : BookingParticipant.values()) {
+            for (BookingSearchMode mode : BookingSearchMode.values()) {
+                assertIndexed(() -> bookingRepository.findViews(participant, 1, mode, now, null, 0, 10));
+                assertIndexed(() -> bookingRepository.findViews(participant, 1, mode, now, cursor, 0, 10));
+            }
+        }
+        assertIndexed(() -> bookingRepository.findByBooker_IdAndEndIsBefore(1, now, Sort.by("start")));
+    }
+
+    @Test
+    void lastAndNextBookingsUseIndexes() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertIndexed(() -> bookingRepository.findLastByItemIds(List.of(1, 2), now, BookingStatus.REJECTED));
+        assertIndexed(() -> bookingRepository.findNextByItemIds(List.of(1, 2), now, BookingStatus.REJECTED));
+    }
+
+    @Test
+    void availabilityUsesIndexes() {
+        assertIndexed(() -> bookingRepository.findIntervalsByItemId(1, BookingConflictIndex.ACTIVE_STATUSES, LocalDateTime.now()));
+    }
+
+    @Test
+    void ownerItemsAndCommentsUseIndexes() {
+        assertIndexed(() -> itemRepository.findByOwnerId(1, ScrollPosition.keyset(), Limit.of(10), Sort.by("id")));
+        assertIndexed(() -> commentRepository.findOutputsByItemId(1));
+    }
+
+    private void assertIndexed(Runnable repositoryCall) {
+        RequestQueryStatistics statistics = RequestQueryStatistics.start("explain");
+        try {
+            repositoryCall.run();
+        } finally {
+            RequestQueryStatistics.finish();
+        }
+
+        assertFalse(statistics.getStatements().isEmpty());
+        for (String sql : statistics.getStatements().keySet()) {
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+            assertFalse(plan.contains(".tableScan"), () -> "Full scan in plan:\n" + plan);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingApprovalDtoOutput;
+import ru.practicum.shareit.booking.dto.BookingDtoInput;
+import ru.practicum.shareit.booking.model.BookingApprovalOutcome;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemAvailabilityCalendar;
+import ru.practicum.shareit.item.service.ItemBookingSummary;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookingBatchApprovalTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final AtomicInteger USER_SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private ItemBookingSummary itemBookingSummary;
+    @Autowired
+    private ItemAvailabilityCalendar itemAvailabilityCalendar;
+
+    private UserDto owner;
+    private UserDto booker;
+    private ItemDto item;
+    private int slot;
+
+    @BeforeEach
+    void setUp() {
+        owner = addUser("owner");
+        booker = addUser("booker");
+        item = itemService.add(owner.getId(), new ItemDto(null, "canoe", "open canoe", true, null));
+    }
+
+    @Test
+    void everyRequestedIdGetsItsOutcome() {
+        UserDto otherOwner = addUser("other");
+        ItemDto otherItem = itemService.add(otherOwner.getId(), new ItemDto(null, "oar", "wooden oar", true, null));
+        Integer first = addBooking(item);
+        Integer second = addBooking(item);
+        Integer decided = addBooking(item);
+        bookingService.setApprove(decided, owner.getId(), false);
+        Integer foreign = addBooking(otherItem);
+        Integer missing = Integer.MAX_VALUE;
+
+        List<BookingApprovalDtoOutput> outcomes = bookingService.setApproveAll(
+                List.of(first, missing, decided, foreign, second, first), owner.getId(), true);
+
+        assertEquals(List.of(
+                new BookingApprovalDtoOutput(first, BookingApprovalOutcome.APPROVED),
+                new BookingApprovalDtoOutput(missing, BookingApprovalOutcome.NOT_FOUND),
+                new BookingApprovalDtoOutput(decided, BookingApprovalOutcome.NOT_WAITING),
+                new BookingApprovalDtoOutput(foreign, BookingApprovalOutcome.FORBIDDEN),
+                new BookingApprovalDtoOutput(second, BookingApprovalOutcome.APPROVED)), outcomes);
+        assertEquals(BookingStatus.APPROVED, statusOf(first));
+        assertEquals(BookingStatus.APPROVED, statusOf(second));
+        assertEquals(BookingStatus.REJECTED, statusOf(decided));
+        assertEquals(BookingStatus.WAITING, statusOf(foreign));
+    }
+
+    @Test
+    void overlappingApprovalsKeepTheEarliestBooking() {
+        Integer approved = addBooking(item);
+        bookingService.setApprove(approved, owner.getId(), true);
+        LocalDateTime start = bookingRepository.findById(approved).orElseThrow().getStart();
+        Integer earlier = addBooking(item);
+        Integer later = addBooking(item);
+        Integer clashing = addBooking(item);
+        moveBooking(earlier, start.plusDays(10), start.plusDays(10).plusHours(2));
+        moveBooking(later, start.plusDays(10).plusHours(1), start.plusDays(10).plusHours(3));
+        moveBooking(clashing, start.minusMinutes(30), start.plusMinutes(30));
+
+        List<BookingApprovalDtoOutput> outcomes = bookingService.setApproveAll(
+                List.of(later, clashing, earlier), owner.getId(), true);
+
+        assertEquals(List.of(
+                new BookingApprovalDtoOutput(later, BookingApprovalOutcome.CONFLICT),
+                new BookingApprovalDtoOutput(clashing, BookingApprovalOutcome.CONFLICT),
+                new BookingApprovalDtoOutput(earlier, BookingApprovalOutcome.APPROVED)), outcomes);
+        assertEquals(BookingStatus.WAITING, statusOf(later));
+        assertEquals(BookingStatus.WAITING, statusOf(clashing));
+
+        assertEquals(List.of(
+                new BookingApprovalDtoOutput(later, BookingApprovalOutcome.REJECTED),
+                new BookingApprovalDtoOutput(clashing, BookingApprovalOutcome.REJECTED)),
+                bookingService.setApproveAll(List.of(later, clashing), owner.getId(), false));
+    }
+
+    /**
+     * Another connection rejects a booking after the batch has read it as waiting; the batch update then skips the row
+     * and must report it instead of claiming the approval.
+     */
+    @Test
+    void bookingDecidedDuringBatchIsReportedAsLost() throws Exception {
+        Integer kept = addBooking(item);
+        Integer lost = addBooking(item);
+        AtomicReference<Thread> batchThread = new AtomicReference<>();
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement reject = connection.prepareStatement(
+                    "update bookings set status = 'REJECTED', version = version + 1 where id = ?")) {
+                reject.setInt(1, lost);
+                assertEquals(1, reject.executeUpdate());
+            }
+
+            CompletableFuture<List<BookingApprovalDtoOutput>> batch = CompletableFuture.supplyAsync(() -> {
+                batchThread.set(Thread.currentThread());
+                return bookingService.setApproveAll(List.of(kept, lost), owner.getId(), true);
+            });
+            awaitBlocked(batchThread);
+            connection.commit();
+
+            assertEquals(List.of(
+                    new BookingApprovalDtoOutput(kept, BookingApprovalOutcome.APPROVED),
+                    new BookingApprovalDtoOutput(lost, BookingApprovalOutcome.NOT_WAITING)),
+                    batch.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(BookingStatus.APPROVED, statusOf(kept));
+        assertEquals(BookingStatus.REJECTED, statusOf(lost));
+    }
+
+    @Test
+    void batchEndpointAnswersPerBooking() throws Exception {
+        Integer waiting = addBooking(item);
+
+        mockMvc.perform(patch("/bookings/batch")
+                        .header(USER_HEADER, owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"bookingIds\":[" + waiting + "," + Integer.MAX_VALUE + "],\"approved\":true}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].bookingId").value(waiting))
+                .andExpect(jsonPath("$[0].outcome").value("APPROVED"))
+                .andExpect(jsonPath("$[1].outcome").value("NOT_FOUND"));
+        mockMvc.perform(patch("/bookings/batch")
+                        .header(USER_HEADER, booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"bookingIds\":[" + waiting + "],\"approved\":false}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].outcome").value("FORBIDDEN"));
+        mockMvc.perform(patch("/bookings/batch")
+                        .header(USER_HEADER, owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"bookingIds\":[],\"approved\":true}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void awaitBlocked(AtomicReference<Thread> thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            Thread current = thread.get();
+            if (current != null && current.getState() != Thread.State.RUNNABLE) {
+                return;
+            }
+            Thread.onSpinWait();
+        }
+        fail("the batch never waited for the row lock");
+    }
+
+    private Integer addBooking(ItemDto target) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).plusHours(2L * slot++);
+        return bookingService.add(booker.getId(), new BookingDtoInput(null, target.getId(), start, start.plusHours(1))).getId();
+    }
+
+    private void moveBooking(Integer bookingId, LocalDateTime start, LocalDateTime end) {
+        jdbcTemplate.update("update bookings set start_time = ?, end_time = ? where id = ?",
+                Timestamp.valueOf(start), Timestamp.valueOf(end), bookingId);
+        itemBookingSummary.refresh(List.of(item.getId()));
+        itemAvailabilityCalendar.evict(List.of(item.getId()));
+    }
+
+    private BookingStatus statusOf(Integer bookingId) {
+        return bookingRepository.findById(bookingId).orElseThrow().getStatus();
+    }
+
+    private UserDto addUser(String name) {
+        int number = USER_SEQUENCE.incrementAndGet();
+        return userService.add(UserDto.builder().name(name).email(name + number + "@batch.test").build());
+    }
+}
@@ -0,0 +1,136 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemAvailabilityCalendar;
+import ru.practicum.shareit.item.service.ItemBookingSummary;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookingPagingTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final int BOOKINGS = 11;
+    private static final int PAGE_SIZE = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ItemBookingSummary itemBookingSummary;
+    @Autowired
+    private ItemAvailabilityCalendar itemAvailabilityCalendar;
+
+    private UserDto owner;
+    private UserDto booker;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = String.valueOf(System.nanoTime() % 1_000_000);
+        owner = userService.add(UserDto.builder().name("owner").email("owner" + suffix + "@paging.test").build());
+        booker = userService.add(UserDto.builder().name("booker").email("booker" + suffix + "@paging.test").build());
+        Integer itemId = itemService.add(owner.getId(), new ItemDto(null, "tent", "four-person tent", true, null)).getId();
+
+        LocalDateTime base = LocalDateTime.now().minusMonths(1).withNano(0);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            // pairs of bookings share a start, so the id tie-breaker decides the order across page borders
+            LocalDateTime start = base.plusDays(i / 2);
+            rows.add(new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(1)),
+                    itemId, booker.getId(), i % 4 == 0 ? "REJECTED" : "APPROVED"});
+        }
+        jdbcTemplate.batchUpdate("insert into bookings (start_time, end_time, item_id, booker_id, status) " +
+                "values (?, ?, ?, ?, ?)", rows);
+        itemBookingSummary.refresh(List.of(itemId));
+        itemAvailabilityCalendar.evict(List.of(itemId));
+    }
+
+    @Test
+    void nextCursorWalksTheWholeList() throws Exception {
+        assertEquals(BOOKINGS, followCursors("/bookings?state=ALL", booker.getId()).size());
+        assertEquals(onePage("/bookings?state=ALL", booker.getId()), followCursors("/bookings?state=ALL", booker.getId()));
+        assertEquals(onePage("/bookings/owner?state=REJECTED", owner.getId()),
+                followCursors("/bookings/owner?state=REJECTED", owner.getId()));
+    }
+
+    @Test
+    void lastPageCarriesNoCursor() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/bookings?state=ALL&size=" + BOOKINGS)
+                        .header(USER_HEADER, booker.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        assertEquals(BOOKINGS, ids(response).size());
+        assertNull(response.getHeader(CursorPage.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void malformedCursorIsRejected() throws Exception {
+        mockMvc.perform(get("/bookings?state=ALL&cursor=not-a-cursor").header(USER_HEADER, booker.getId()))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<Integer> followCursors(String path, Integer userId) throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            MockHttpServletRequestBuilder request = get(path + "&size=" + PAGE_SIZE).header(USER_HEADER, userId);
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            MockHttpServletResponse response = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse();
+            List<Integer> page = ids(response);
+            assertTrue(page.size() <= PAGE_SIZE);
+            ids.addAll(page);
+            cursor = response.getHeader(CursorPage.NEXT_CURSOR_HEADER);
+            pages++;
+        } while (cursor != null && pages <= BOOKINGS);
+        assertNull(cursor);
+        return ids;
+    }
+
+    private List<Integer> onePage(String path, Integer userId) throws Exception {
+        return ids(mockMvc.perform(get(path).header(USER_HEADER, userId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse());
+    }
+
+    private List<Integer> ids(MockHttpServletResponse response) throws Exception {
+        return objectMapper.readValue(response.getContentAsString(), new TypeReference<List<BookingDtoOutput>>() {
+        }).stream().map(BookingDtoOutput::getId).toList();
+    }
+}
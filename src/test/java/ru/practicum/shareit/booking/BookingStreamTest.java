@@ -0,0 +1,178 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.dto.BookingDtoInput;
+import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.model.BookingParticipant;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemAvailabilityCalendar;
+import ru.practicum.shareit.item.service.ItemBookingSummary;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.lang.ref.WeakReference;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookingStreamTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final int BOOKINGS = 5000;
+    private static final int TRACKED = 100;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ItemBookingSummary itemBookingSummary;
+    @Autowired
+    private ItemAvailabilityCalendar itemAvailabilityCalendar;
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    private UserDto owner;
+    private UserDto booker;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = String.valueOf(System.nanoTime() % 1_000_000);
+        owner = userService.add(UserDto.builder().name("owner").email("owner" + suffix + "@stream.test").build());
+        booker = userService.add(UserDto.builder().name("booker").email("booker" + suffix + "@stream.test").build());
+        List<Integer> itemIds = List.of(
+                itemService.add(owner.getId(), new ItemDto(null, "kayak", "two-seat kayak", true, null)).getId(),
+                itemService.add(owner.getId(), new ItemDto(null, "paddle", "carbon paddle", true, null)).getId());
+
+        LocalDateTime base = LocalDateTime.now().minusYears(1);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDateTime start = base.plusHours(i / 2);
+            rows.add(new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(start.plusMinutes(30)),
+                    itemIds.get(i % 2), booker.getId(), i % 3 == 0 ? "REJECTED" : "APPROVED"});
+        }
+        jdbcTemplate.batchUpdate("insert into bookings (start_time, end_time, item_id, booker_id, status) " +
+                "values (?, ?, ?, ?, ?)", rows);
+        itemBookingSummary.refresh(itemIds);
+        itemAvailabilityCalendar.evict(itemIds);
+    }
+
+    @Test
+    void streamMatchesPagedHistory() throws Exception {
+        assertEquals(paged(booker.getId(), "ALL", false), streamed("/bookings/stream?state=ALL", booker.getId()));
+        assertEquals(paged(owner.getId(), "REJECTED", true), streamed("/bookings/owner/stream?state=REJECTED", owner.getId()));
+    }
+
+    @Test
+    void invalidRequestsFailBeforeStreaming() throws Exception {
+        mockMvc.perform(get("/bookings/stream").header(USER_HEADER, Integer.MAX_VALUE))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/bookings/stream?state=SOMETIMES").header(USER_HEADER, booker.getId()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void listsAndStreamsCarryTheItemRequest() throws Exception {
+        Integer requestId = itemRequestService.add(booker.getId(),
+                new ItemRequestDto(null, "need a tarp", null)).getId();
+        ItemDto tarp = itemService.add(owner.getId(), new ItemDto(null, "tarp", "large tarp", true, requestId));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        bookingService.add(booker.getId(), new BookingDtoInput(null, tarp.getId(), start, start.plusHours(1)));
+
+        String listed = mockMvc.perform(get("/bookings?state=FUTURE").header(USER_HEADER, booker.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        MvcResult streamed = mockMvc.perform(get("/bookings/owner/stream?state=FUTURE").header(USER_HEADER, owner.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String streamedBody = mockMvc.perform(asyncDispatch(streamed))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        for (String body : List.of(listed, streamedBody)) {
+            List<BookingDtoOutput> bookings = objectMapper.readValue(body, new TypeReference<>() {
+            });
+            assertEquals(1, bookings.size());
+            assertEquals(requestId, bookings.get(0).getItem().getRequestId());
+        }
+    }
+
+    /**
+     * Bookings already passed on must become unreachable: nothing may collect the history behind the stream.
+     */
+    @Test
+    void streamDoesNotRetainWrittenBookings() {
+        List<WeakReference<BookingDtoOutput>> first = new ArrayList<>();
+        int[] seen = {0};
+        int[] collected = {0};
+
+        bookingService.streamAll(BookingParticipant.BOOKER, "ALL", booker.getId()).forEach(booking -> {
+            if (first.size() < TRACKED) {
+                first.add(new WeakReference<>(booking));
+            }
+            if (++seen[0] == BOOKINGS) {
+                System.gc();
+                collected[0] = (int) first.stream().filter(reference -> reference.get() == null).count();
+            }
+        });
+
+        assertEquals(BOOKINGS, seen[0]);
+        assertEquals(TRACKED, collected[0]);
+    }
+
+    private List<Integer> streamed(String path, Integer userId) throws Exception {
+        MvcResult result = mockMvc.perform(get(path).header(USER_HEADER, userId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, new TypeReference<List<BookingDtoOutput>>() {
+        }).stream().map(BookingDtoOutput::getId).toList();
+    }
+
+    private List<Integer> paged(Integer userId, String state, boolean byOwner) {
+        List<Integer> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            PageParams page = new PageParams(0, (int) PageParams.MAX_SIZE, cursor);
+            CursorPage<BookingDtoOutput> result = byOwner
+                    ? bookingService.getAllByOwner(state, userId, page)
+                    : bookingService.getAll(state, userId, page);
+            result.getContent().forEach(booking -> ids.add(booking.getId()));
+            cursor = result.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+}
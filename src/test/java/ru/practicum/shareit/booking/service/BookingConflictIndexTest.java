@@ -0,0 +1,173 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingDtoInput;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.BookingConflictException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class BookingConflictIndexTest {
+    private static final int THREADS = 16;
+    private static final AtomicInteger USER_SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private BookingConflictIndex bookingConflictIndex;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+
+    @Test
+    void detectsOverlapsOnly() {
+        BookingConflictIndex index = new BookingConflictIndex(null);
+        index.put(interval(1, 1, 10, 12, BookingStatus.APPROVED));
+        index.put(interval(2, 1, 20, 60, BookingStatus.WAITING));
+        index.put(interval(3, 2, 0, 100, BookingStatus.APPROVED));
+
+        assertTrue(index.hasConflict(1, at(11), at(13), null, BookingConflictIndex.ACTIVE_STATUSES));
+        assertTrue(index.hasConflict(1, at(9), at(30), null, BookingConflictIndex.ACTIVE_STATUSES));
+        assertTrue(index.hasConflict(1, at(40), at(41), null, BookingConflictIndex.ACTIVE_STATUSES),
+                "a long booking that started earlier must still be found");
+        assertFalse(index.hasConflict(1, at(12), at(20), null, BookingConflictIndex.ACTIVE_STATUSES),
+                "touching intervals do not overlap");
+        assertFalse(index.hasConflict(1, at(11), at(13), 1, BookingConflictIndex.ACTIVE_STATUSES));
+        assertFalse(index.hasConflict(1, at(30), at(31), null, EnumSet.of(BookingStatus.APPROVED)));
+        assertFalse(index.hasConflict(3, at(0), at(100), null, BookingConflictIndex.ACTIVE_STATUSES));
+
+        index.put(interval(1, 1, 10, 12, BookingStatus.REJECTED));
+        assertFalse(index.hasConflict(1, at(11), at(13), null, BookingConflictIndex.ACTIVE_STATUSES));
+        index.remove(1, 2);
+        assertFalse(index.hasConflict(1, at(40), at(41), null, BookingConflictIndex.ACTIVE_STATUSES));
+    }
+
+    @Test
+    void matchesFullScanAfterRandomChanges() {
+        BookingConflictIndex index = new BookingConflictIndex(null);
+        Map<Integer, BookingIntervalView> bookings = new HashMap<>();
+        BookingStatus[] statuses = BookingStatus.values();
+        Random random = new Random(3);
+
+        for (int operation = 0; operation < 2000; operation++) {
+            int id = 1 + random.nextInt(80);
+            int start = random.nextInt(200);
+            BookingIntervalView booking = interval(id, 1 + id % 3, start,
+                    start + 1 + random.nextInt(random.nextInt(10) == 0 ? 100 : 10),
+                    statuses[random.nextInt(statuses.length)]);
+            bookings.put(booking.getId(), booking);
+            index.put(booking);
+
+            int itemId = 1 + random.nextInt(3);
+            int from = random.nextInt(220);
+            int to = from + 1 + random.nextInt(20);
+            boolean expected = bookings.values().stream().anyMatch(other -> other.getItemId() == itemId
+                    && BookingConflictIndex.ACTIVE_STATUSES.contains(other.getStatus())
+                    && other.getStart().isBefore(at(to)) && at(from).isBefore(other.getEnd()));
+            assertEquals(expected, index.hasConflict(itemId, at(from), at(to), null,
+                    BookingConflictIndex.ACTIVE_STATUSES), "operation " + operation);
+        }
+    }
+
+    @Test
+    void concurrentBookingsOfSameSlotHaveOneWinner() throws Exception {
+        UserDto owner = addUser("owner");
+        Integer itemId = itemService.add(owner.getId(), new ItemDto(null, "boat", "rowing boat", true, null)).getId();
+        List<UserDto> bookers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookers.add(addUser("booker"));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch startGate = new CountDownLatch(1);
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                // overlapping but different intervals, so every pair conflicts
+                BookingDtoInput input = new BookingDtoInput(null, itemId, at(i), at(THREADS + i));
+                Integer bookerId = bookers.get(i).getId();
+                results.add(executor.submit(() -> {
+                    startGate.await();
+                    return bookingService.add(bookerId, input);
+                }));
+            }
+            startGate.countDown();
+
+            int succeeded = 0;
+            for (Future<?> result : results) {
+                try {
+                    result.get();
+                    succeeded++;
+                } catch (ExecutionException exception) {
+                    assertInstanceOf(BookingConflictException.class, exception.getCause());
+                }
+            }
+            assertEquals(1, succeeded);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void rolledBackBookingLeavesIndexUnchanged() {
+        UserDto owner = addUser("owner");
+        UserDto booker = addUser("booker");
+        Integer itemId = itemService.add(owner.getId(), new ItemDto(null, "tent", "big tent", true, null)).getId();
+        BookingDtoInput input = new BookingDtoInput(null, itemId, at(1), at(5));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            bookingService.add(booker.getId(), input);
+            status.setRollbackOnly();
+        });
+
+        assertFalse(bookingConflictIndex.hasConflict(itemId, at(1), at(5), null, BookingConflictIndex.ACTIVE_STATUSES));
+        bookingService.add(booker.getId(), input);
+        assertTrue(bookingConflictIndex.hasConflict(itemId, at(1), at(5), null, BookingConflictIndex.ACTIVE_STATUSES));
+    }
+
+    private BookingIntervalView interval(int id, int itemId, int startHour, int endHour, BookingStatus status) {
+        return new BookingIntervalView(id, itemId, at(startHour), at(endHour), status);
+    }
+
+    private LocalDateTime at(int hour) {
+        return base.plusHours(hour);
+    }
+
+    private UserDto addUser(String name) {
+        int number = USER_SEQUENCE.incrementAndGet();
+        return userService.add(UserDto.builder().name(name).email(name + number + "@conflict.test").build());
+    }
+}
@@ -0,0 +1,150 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDtoInput;
+import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.UnavailableItemBookingException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class BookingStatusTransitionTest {
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 20;
+    private static final AtomicInteger USER_SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+
+    private UserDto owner;
+    private UserDto booker;
+    private ItemDto item;
+
+    @BeforeEach
+    void setUp() {
+        owner = addUser("owner");
+        booker = addUser("booker");
+        item = itemService.add(owner.getId(), new ItemDto(null, "ladder", "tall ladder", true, null));
+    }
+
+    @Test
+    void concurrentApproveAndRejectHaveExactlyOneWinner() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                Integer bookingId = addBooking(round);
+                CountDownLatch startGate = new CountDownLatch(1);
+                List<Future<BookingDtoOutput>> results = new ArrayList<>();
+                for (int i = 0; i < THREADS; i++) {
+                    boolean approve = i % 2 == 0;
+                    results.add(executor.submit(() -> {
+                        startGate.await();
+                        return bookingService.setApprove(bookingId, owner.getId(), approve);
+                    }));
+                }
+                startGate.countDown();
+
+                List<BookingDtoOutput> winners = new ArrayList<>();
+                for (Future<BookingDtoOutput> result : results) {
+                    try {
+                        winners.add(result.get());
+                    } catch (ExecutionException exception) {
+                        assertInstanceOf(UnavailableItemBookingException.class, exception.getCause());
+                    }
+                }
+
+                assertEquals(1, winners.size());
+                Booking stored = bookingRepository.findById(bookingId).orElseThrow();
+                assertEquals(winners.get(0).getStatus(), stored.getStatus());
+                assertEquals(1, stored.getVersion());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void compareAndSetLetsOnlyOneTransitionThrough() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                Integer bookingId = addBooking(ROUNDS + round);
+                CountDownLatch startGate = new CountDownLatch(1);
+                List<Callable<Integer>> transitions = new ArrayList<>();
+                for (int i = 0; i < THREADS; i++) {
+                    BookingStatus status = i % 2 == 0 ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+                    transitions.add(() -> {
+                        startGate.await();
+                        return bookingRepository.compareAndSetStatus(bookingId, BookingStatus.WAITING, status);
+                    });
+                }
+                List<Future<Integer>> results = new ArrayList<>();
+                for (Callable<Integer> transition : transitions) {
+                    results.add(executor.submit(transition));
+                }
+                startGate.countDown();
+
+                int updated = 0;
+                for (Future<Integer> result : results) {
+                    updated += result.get();
+                }
+                assertEquals(1, updated);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void staleEntityCannotOverwriteNewerVersion() {
+        Integer bookingId = addBooking(2 * ROUNDS);
+        Booking first = bookingRepository.findById(bookingId).orElseThrow();
+        Booking stale = bookingRepository.findById(bookingId).orElseThrow();
+
+        first.setEnd(first.getEnd().plusHours(1));
+        bookingRepository.save(first);
+        stale.setStart(stale.getStart().minusHours(1));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> bookingRepository.save(stale));
+    }
+
+    private Integer addBooking(int slot) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).plusHours(2L * slot);
+        return bookingService.add(booker.getId(), new BookingDtoInput(null, item.getId(), start, start.plusHours(1))).getId();
+    }
+
+    private UserDto addUser(String name) {
+        int number = USER_SEQUENCE.incrementAndGet();
+        return userService.add(UserDto.builder().name(name).email(name + number + "@transition.test").build());
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class EntityCacheTest {
+    @Autowired
+    private EntityCache<User> userCache;
+    @Autowired
+    private EntityCache<Item> itemCache;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+
+    @Test
+    void loadsOncePerIdAndNeverCachesMisses() {
+        Map<Integer, String> rows = new HashMap<>(Map.of(1, "first"));
+        AtomicInteger loads = new AtomicInteger();
+        EntityCache<String> cache = new EntityCache<>(Caffeine.newBuilder().maximumSize(10).build(), id -> {
+            loads.incrementAndGet();
+            return Optional.ofNullable(rows.get(id));
+        });
+
+        assertEquals(Optional.of("first"), cache.find(1));
+        assertTrue(cache.exists(1));
+        assertEquals(1, loads.get());
+
+        assertFalse(cache.exists(2));
+        rows.put(2, "second");
+        assertTrue(cache.exists(2), "a miss must not be remembered");
+        assertEquals(3, loads.get());
+
+        rows.put(1, "changed");
+        cache.evict(1);
+        assertEquals(Optional.of("changed"), cache.find(1));
+        cache.put(1, "put");
+        assertEquals(Optional.of("put"), cache.find(1));
+        assertEquals(4, loads.get());
+
+        cache.evictIf(value -> value.startsWith("s"));
+        assertEquals(Optional.of("second"), cache.find(2));
+        assertEquals(Optional.of("put"), cache.find(1));
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void updatesReplaceCachedSnapshots() {
+        UserDto owner = userService.add(UserDto.builder().name("before").email("cached-owner@cache.test").build());
+        ItemDto item = itemService.add(owner.getId(), new ItemDto(null, "axe", "sharp axe", true, null));
+        assertEquals("before", userCache.find(owner.getId()).orElseThrow().getName());
+        assertEquals("axe", itemCache.find(item.getId()).orElseThrow().getName());
+
+        userService.update(owner.getId(), UserDto.builder().name("after").build());
+        itemService.update(item.getId(), owner.getId(), new ItemDto(null, "hatchet", null, null, null));
+
+        assertEquals("after", userCache.find(owner.getId()).orElseThrow().getName());
+        assertEquals("hatchet", itemCache.find(item.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void deletingOwnerEvictsUserAndTheirItems() {
+        UserDto owner = userService.add(UserDto.builder().name("owner").email("deleted-owner@cache.test").build());
+        UserDto other = userService.add(UserDto.builder().name("other").email("other-owner@cache.test").build());
+        Integer ownItemId = itemService.add(owner.getId(), new ItemDto(null, "rake", "garden rake", true, null)).getId();
+        Integer otherItemId = itemService.add(other.getId(), new ItemDto(null, "hoe", "garden hoe", true, null)).getId();
+        assertTrue(itemCache.exists(ownItemId));
+        assertTrue(itemCache.exists(otherItemId));
+
+        userService.delete(owner.getId());
+
+        assertFalse(userCache.exists(owner.getId()));
+        assertFalse(itemCache.exists(ownItemId));
+        assertTrue(itemCache.exists(otherItemId));
+    }
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrencyLimitFilterTest {
+    @Test
+    void rejectsRequestsBeyondLimitUntilSlotIsFreed() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, Duration.ofMillis(50), meterRegistry);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread blocking = Thread.ofVirtual().start(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest("GET", "/items"), new MockHttpServletResponse(),
+                        (request, response) -> {
+                            entered.countDown();
+                            awaitQuietly(release);
+                        });
+            } catch (Exception exception) {
+                throw new IllegalStateException(exception);
+            }
+        });
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        assertEquals(1, filter.inFlight());
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/items"), rejected, (request, response) -> {
+            throw new AssertionError("must not be handled");
+        });
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, meterRegistry.get("shareit.concurrency.rejected").counter().count());
+
+        MockHttpServletResponse health = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), health, (request, response) -> {
+        });
+        assertEquals(200, health.getStatus());
+
+        release.countDown();
+        blocking.join();
+        assertEquals(0, filter.inFlight());
+
+        MockHttpServletResponse accepted = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/items"), accepted, (request, response) -> {
+        });
+        assertEquals(200, accepted.getStatus());
+    }
+
+    @Test
+    void asyncRequestHoldsSlotUntilCompleted() throws Exception {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, Duration.ofMillis(50), new SimpleMeterRegistry());
+        MockHttpServletRequest streaming = new MockHttpServletRequest("GET", "/bookings/stream");
+        streaming.setAsyncSupported(true);
+
+        filter.doFilter(streaming, new MockHttpServletResponse(), (request, response) -> request.startAsync());
+        assertEquals(1, filter.inFlight());
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/items"), rejected, (request, response) -> {
+            throw new AssertionError("must not be handled");
+        });
+        assertEquals(503, rejected.getStatus());
+
+        ((MockAsyncContext) streaming.getAsyncContext()).complete();
+        assertEquals(0, filter.inFlight());
+    }
+
+    @Test
+    void leavesConnectionsOfParallelReadThreadsOut() {
+        assertEquals(12, ConcurrencyLimitConfig.requestConnections(20, 0, 8));
+        assertEquals(22, ConcurrencyLimitConfig.requestConnections(20, 10, 8));
+        assertEquals(1, ConcurrencyLimitConfig.requestConnections(4, 0, 8));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package ru.practicum.shareit.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.TransactionOperations;
+import ru.practicum.shareit.datasource.DataSourceRouting;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.monitoring.RequestQueryStatistics;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelReadsTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ParallelReads parallelReads = new ParallelReads(properties(Duration.ofSeconds(5)),
+            TransactionOperations.withoutTransaction(), meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        parallelReads.close();
+    }
+
+    @Test
+    void branchesRunAtTheSameTimeAndAreTimed() {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        Runnable waitForOther = () -> {
+            bothStarted.countDown();
+            assertTrue(await(bothStarted), "branches ran one after another");
+        };
+
+        parallelReads.run("test", List.of(new ParallelReads.Branch("first", waitForOther),
+                new ParallelReads.Branch("second", waitForOther)));
+
+        for (String branch : List.of("first", "second")) {
+            assertEquals(1, meterRegistry.get("shareit.parallel-reads.branch")
+                    .tag("operation", "test").tag("branch", branch).timer().count());
+        }
+    }
+
+    @Test
+    void failureIsRethrownAndInterruptsOtherBranches() {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        NotFoundException failure = new NotFoundException("нет");
+
+        NotFoundException thrown = assertThrows(NotFoundException.class, () -> parallelReads.run("test", List.of(
+                new ParallelReads.Branch("slow", () -> {
+                    started.countDown();
+                    blockUntilInterrupted(interrupted);
+                }),
+                new ParallelReads.Branch("failing", () -> {
+                    await(started);
+                    throw failure;
+                }))));
+
+        assertSame(failure, thrown);
+        assertTrue(await(interrupted));
+    }
+
+    @Test
+    void timeoutInterruptsBranches() {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        try (ParallelReads impatient = new ParallelReads(properties(Duration.ofMillis(100)),
+                TransactionOperations.withoutTransaction(), meterRegistry)) {
+            assertThrows(QueryTimeoutException.class, () -> impatient.run("test", List.of(
+                    new ParallelReads.Branch("slow", () -> {
+                        started.countDown();
+                        blockUntilInterrupted(interrupted);
+                    }),
+                    new ParallelReads.Branch("fast", () -> await(started)))));
+        }
+        assertTrue(await(interrupted));
+    }
+
+    @Test
+    void requestContextReachesBranchesAndSurvivesThem() {
+        RequestQueryStatistics statistics = RequestQueryStatistics.start("GET /test");
+        boolean[] primaryForced = new boolean[2];
+        RequestQueryStatistics[] seen = new RequestQueryStatistics[2];
+        try {
+            DataSourceRouting.onPrimary(() -> parallelReads.run("test", List.of(
+                    new ParallelReads.Branch("pooled", () -> {
+                        primaryForced[0] = DataSourceRouting.isPrimaryForced();
+                        seen[0] = RequestQueryStatistics.current();
+                    }),
+                    new ParallelReads.Branch("inline", () -> {
+                        primaryForced[1] = DataSourceRouting.isPrimaryForced();
+                        seen[1] = RequestQueryStatistics.current();
+                    }))));
+
+            assertTrue(primaryForced[0] && primaryForced[1]);
+            assertSame(statistics, seen[0]);
+            assertSame(statistics, seen[1]);
+            assertSame(statistics, RequestQueryStatistics.current());
+            assertFalse(DataSourceRouting.isPrimaryForced());
+        } finally {
+            RequestQueryStatistics.finish();
+        }
+    }
+
+    private static ParallelReadProperties properties(Duration timeout) {
+        ParallelReadProperties properties = new ParallelReadProperties();
+        properties.setThreads(2);
+        properties.setTimeout(timeout);
+        return properties;
+    }
+
+    private static void blockUntilInterrupted(CountDownLatch interrupted) {
+        try {
+            new CountDownLatch(1).await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            interrupted.countDown();
+        }
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
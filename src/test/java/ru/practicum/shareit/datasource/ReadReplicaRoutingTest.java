@@ -0,0 +1,119 @@
+package ru.practicum.shareit.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary",
+        "shareit.datasource.replica.url=jdbc:h2:mem:routing-replica",
+        "shareit.datasource.replica.username=shareit",
+        "shareit.datasource.replica.password=shareit",
+        "shareit.datasource.replica.read-your-writes-window=1s"
+})
+@AutoConfigureMockMvc
+class ReadReplicaRoutingTest {
+    private static final int OWNER_ID = 100_001;
+    private static final int BOOKER_ID = 100_002;
+    private static final int REPLICA_ONLY_USER_ID = 100_003;
+    private static final int ITEM_ID = 100_001;
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @BeforeEach
+    void setUp() {
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(replicaDataSource);
+        for (DataSource dataSource : new DataSource[]{primaryDataSource, replicaDataSource}) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.update("MERGE INTO users (id, name, email) KEY (id) VALUES (?, 'owner', 'owner@routing.test')", OWNER_ID);
+            jdbcTemplate.update("MERGE INTO users (id, name, email) KEY (id) VALUES (?, 'booker', 'booker@routing.test')", BOOKER_ID);
+            jdbcTemplate.update("MERGE INTO items (id, name, description, is_available, owner_id) KEY (id) " +
+                    "VALUES (?, 'tent', 'two person tent', true, ?)", ITEM_ID, OWNER_ID);
+        }
+        new JdbcTemplate(replicaDataSource).update(
+                "MERGE INTO users (id, name, email) KEY (id) VALUES (?, 'replica', 'replica@routing.test')", REPLICA_ONLY_USER_ID);
+    }
+
+    @Test
+    void readOnlyServiceMethodsReadFromReplica() {
+        assertEquals("replica", userService.get(REPLICA_ONLY_USER_ID).getName());
+    }
+
+    @Test
+    void writerReadsOwnWritesFromPrimaryUntilWindowExpires() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        MvcResult created = mockMvc.perform(post("/bookings")
+                        .header(ReadYourWritesInterceptor.USER_HEADER, BOOKER_ID)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemId\":" + ITEM_ID + ",\"start\":\"" + start + "\",\"end\":\"" + start.plusHours(1) + "\"}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        Matcher matcher = ID.matcher(created.getResponse().getContentAsString());
+        matcher.find();
+        String bookingId = matcher.group(1);
+
+        mockMvc.perform(get("/bookings/" + bookingId).header(ReadYourWritesInterceptor.USER_HEADER, BOOKER_ID))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/bookings/" + bookingId).header(ReadYourWritesInterceptor.USER_HEADER, OWNER_ID))
+                .andExpect(status().isNotFound());
+
+        Thread.sleep(1_200);
+
+        mockMvc.perform(get("/bookings/" + bookingId).header(ReadYourWritesInterceptor.USER_HEADER, BOOKER_ID))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void writerStreamsOwnWritesFromPrimaryWithoutLeakingTheOverride() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(2);
+        mockMvc.perform(post("/bookings")
+                        .header(ReadYourWritesInterceptor.USER_HEADER, BOOKER_ID)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemId\":" + ITEM_ID + ",\"start\":\"" + start + "\",\"end\":\"" + start.plusHours(1) + "\"}"))
+                .andExpect(status().isOk());
+
+        MvcResult streamed = mockMvc.perform(get("/bookings/stream").header(ReadYourWritesInterceptor.USER_HEADER, BOOKER_ID))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertFalse(DataSourceRouting.isPrimaryForced(), "the override must not outlive the first dispatch");
+
+        String body = mockMvc.perform(asyncDispatch(streamed))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(ID.matcher(body).find(), "the booking is only on the primary: " + body);
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReadYourWritesInterceptorTest {
+    private final ReadYourWritesInterceptor interceptor = new ReadYourWritesInterceptor(Duration.ofMinutes(1));
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @AfterEach
+    void tearDown() {
+        DataSourceRouting.reset();
+    }
+
+    @Test
+    void writeIsRecordedBeforeItsResponseIsWritten() {
+        interceptor.preHandle(request("POST", "1"), response, null);
+
+        interceptor.preHandle(request("GET", "1"), response, null);
+        assertTrue(DataSourceRouting.isPrimaryForced());
+        interceptor.afterCompletion(request("GET", "1"), response, null, null);
+
+        interceptor.preHandle(request("GET", "2"), response, null);
+        assertFalse(DataSourceRouting.isPrimaryForced());
+    }
+
+    @Test
+    void overrideIsClearedWhenRequestGoesAsync() {
+        interceptor.preHandle(request("PATCH", "1"), response, null);
+        MockHttpServletRequest stream = request("GET", "1");
+
+        interceptor.preHandle(stream, response, null);
+        interceptor.afterConcurrentHandlingStarted(stream, response, null);
+        assertFalse(DataSourceRouting.isPrimaryForced());
+    }
+
+    private static MockHttpServletRequest request(String method, String userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/bookings");
+        request.addHeader(ReadYourWritesInterceptor.USER_HEADER, userId);
+        return request;
+    }
+}
@@ -0,0 +1,198 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemSearchIndexTest {
+    private static final String[] WORDS = {"drill", "cordless", "hammer", "ladder", "saw", "sander", "tent", "kayak",
+            "дрель"};
+
+    @Test
+    void candidatesFollowAddsUpdatesAndAvailability() {
+        ItemSearchIndex index = new ItemSearchIndex(null, new SimpleMeterRegistry());
+        Item drill = new Item(1, "Cordless drill", "Drill with two batteries", true);
+        index.add(drill);
+        index.add(new Item(2, "Hammer", "Claw hammer", true));
+        index.add(new Item(3, "Drill bits", "Set of ten", false));
+
+        assertArrayEquals(new int[]{1}, index.candidates("drill"));
+        assertArrayEquals(new int[]{1}, index.candidates("batter"));
+        assertArrayEquals(new int[0], index.candidates("kayak"));
+        assertEquals(2, index.size());
+
+        Item hammer = new Item(1, "Rotary hammer", "Heavy duty", true);
+        index.update(hammer);
+        assertArrayEquals(new int[0], index.candidates("drill"));
+        assertArrayEquals(new int[]{1, 2}, index.candidates("hammer"));
+
+        index.update(new Item(1, "Rotary hammer", "Heavy duty", false));
+        assertArrayEquals(new int[]{2}, index.candidates("hammer"));
+        assertArrayEquals(new int[0], index.candidates("heavy"));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void updatesAppliedOutOfOrderKeepTheLatestVersion() {
+        ItemSearchIndex index = new ItemSearchIndex(null, new SimpleMeterRegistry());
+        index.add(versioned(1, "Cordless drill", true, 0));
+        Item renamed = versioned(1, "Rotary hammer", true, 1);
+        Item withdrawn = versioned(1, "Rotary hammer", false, 2);
+
+        index.update(withdrawn);
+        index.update(renamed);
+        index.update(withdrawn);
+        assertArrayEquals(new int[0], index.candidates("hammer"));
+        assertArrayEquals(new int[0], index.candidates("drill"));
+        assertEquals(0, index.size());
+
+        index.update(versioned(1, "Cordless drill", true, 3));
+        index.update(renamed);
+        assertArrayEquals(new int[]{1}, index.candidates("drill"));
+        assertArrayEquals(new int[0], index.candidates("hammer"));
+        assertEquals(1, index.size());
+
+        index.remove(1);
+        assertArrayEquals(new int[0], index.candidates("drill"));
+        assertEquals(0, index.gramCount());
+    }
+
+    @Test
+    void candidatesMatchFullScanAfterRandomChanges() {
+        ItemSearchIndex index = new ItemSearchIndex(null, new SimpleMeterRegistry());
+        Random random = new Random(7);
+        Map<Integer, Item> items = new HashMap<>();
+
+        for (int operation = 0; operation < 300; operation++) {
+            int id = 1 + random.nextInt(60);
+            Item after = new Item(id, randomText(random), randomText(random), random.nextInt(4) > 0);
+            if (items.put(id, after) == null) {
+                index.add(after);
+            } else {
+                index.update(after);
+            }
+
+            String word = WORDS[random.nextInt(WORDS.length)];
+            int from = random.nextInt(word.length() - 2);
+            String query = word.substring(from, from + 3 + random.nextInt(word.length() - from - 2));
+            Set<String> queryGrams = grams(query);
+            queryGrams.removeIf(gram -> gram.contains(" "));
+            int[] expected = items.values().stream()
+                    .filter(item -> item.getAvailable() && itemGrams(item).containsAll(queryGrams))
+                    .mapToInt(Item::getId)
+                    .sorted()
+                    .toArray();
+            assertArrayEquals(expected, index.candidates(query), "operation " + operation + ", " + query);
+        }
+    }
+
+    @Test
+    void typosStillFindTheItem() {
+        ItemSearchIndex index = new ItemSearchIndex(null, new SimpleMeterRegistry());
+        index.add(new Item(1, "Cordless drill", "Drill with two batteries", true));
+        index.add(new Item(2, "Hammer", "Claw hammer", true));
+        index.add(new Item(3, "Ladder", "Folding ladder", true));
+        index.add(new Item(4, "Sledge hammer", "Heavy", false));
+
+        assertEquals(List.of(2), ids(index.similar("hamer", 0.5, 10)));
+        assertEquals(1, index.similar("cordles dril", 0.5, 10).get(0).itemId());
+        assertEquals(List.of(), index.similar("kayak", 0.5, 10));
+    }
+
+    @Test
+    void similarMatchesFullScanAfterRandomChanges() {
+        ItemSearchIndex index = new ItemSearchIndex(null, new SimpleMeterRegistry());
+        Random random = new Random(11);
+        Map<Integer, Item> items = new HashMap<>();
+
+        for (int operation = 0; operation < 300; operation++) {
+            int id = 1 + random.nextInt(60);
+            Item after = new Item(id, randomText(random), randomText(random), random.nextInt(4) > 0);
+            if (items.put(id, after) == null) {
+                index.add(after);
+            } else {
+                index.update(after);
+            }
+
+            String query = typo(random, WORDS[random.nextInt(WORDS.length)]);
+            double minSimilarity = 0.2 + random.nextInt(7) * 0.1;
+            assertEquals(expected(items, query, minSimilarity, 5), index.similar(query, minSimilarity, 5),
+                    "operation " + operation + ", " + query);
+        }
+    }
+
+    private static Item versioned(int id, String name, boolean available, int version) {
+        Item item = new Item(id, name, name, available);
+        item.setVersion(version);
+        return item;
+    }
+
+    private static List<ItemSearchIndex.SimilarItem> expected(Map<Integer, Item> items, String query,
+                                                             double minSimilarity, int limit) {
+        Set<String> queryGrams = grams(query);
+        int required = Math.max(1, (int) Math.ceil(minSimilarity * queryGrams.size()));
+        List<ItemSearchIndex.SimilarItem> result = new ArrayList<>();
+        for (Item item : items.values()) {
+            if (!item.getAvailable()) {
+                continue;
+            }
+            Set<String> itemGrams = itemGrams(item);
+            long matched = queryGrams.stream().filter(itemGrams::contains).count();
+            if (matched >= required) {
+                result.add(new ItemSearchIndex.SimilarItem(item.getId(), (double) matched / queryGrams.size()));
+            }
+        }
+        result.sort(Comparator.comparingDouble(ItemSearchIndex.SimilarItem::similarity).reversed()
+                .thenComparingInt(ItemSearchIndex.SimilarItem::itemId));
+        return result.subList(0, Math.min(limit, result.size()));
+    }
+
+    private static Set<String> itemGrams(Item item) {
+        Set<String> grams = grams(item.getName());
+        grams.addAll(grams(item.getDescription()));
+        return grams;
+    }
+
+    private static Set<String> grams(String text) {
+        String padded = " " + text.toLowerCase() + " ";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private static String typo(Random random, String word) {
+        int position = random.nextInt(word.length());
+        return switch (random.nextInt(3)) {
+            case 0 -> word.substring(0, position) + word.substring(position + 1);
+            case 1 -> word.substring(0, position) + (char) ('a' + random.nextInt(26)) + word.substring(position + 1);
+            default -> word;
+        };
+    }
+
+    private static String randomText(Random random) {
+        StringBuilder text = new StringBuilder();
+        int words = 1 + random.nextInt(3);
+        for (int i = 0; i < words; i++) {
+            text.append(i == 0 ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    private static List<Integer> ids(List<ItemSearchIndex.SimilarItem> similar) {
+        return similar.stream().map(ItemSearchIndex.SimilarItem::itemId).toList();
+    }
+}
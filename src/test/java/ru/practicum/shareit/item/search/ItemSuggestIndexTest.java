@@ -0,0 +1,121 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemSuggestIndexTest {
+    private static final String[] WORDS = {"drill", "drone", "dress", "saw", "sander", "sail", "tent", "tennis", "ten",
+            "kayak", "kettle", "Дрель", "дрова"};
+
+    @Test
+    void suggestionsMatchWordCountsAfterRandomChanges() {
+        SuggestProperties properties = new SuggestProperties();
+        properties.setTopK(3);
+        ItemSuggestIndex index = new ItemSuggestIndex(null, properties, new SimpleMeterRegistry());
+        Random random = new Random(7);
+        Map<Integer, Item> items = new HashMap<>();
+
+        for (int operation = 0; operation < 500; operation++) {
+            int id = 1 + random.nextInt(40);
+            Item after = new Item(id, randomText(random), randomText(random), random.nextInt(4) > 0);
+            if (items.put(id, after) == null) {
+                index.add(after);
+            } else {
+                index.update(after);
+            }
+
+            for (String prefix : List.of("d", "dr", "s", "sa", "te", "ten", "k", "д", "x")) {
+                assertEquals(expected(items, prefix, 3), index.suggest(prefix, 10), "operation " + operation + ", " + prefix);
+            }
+        }
+    }
+
+    @Test
+    void updatesAppliedOutOfOrderKeepTheLatestVersion() {
+        ItemSuggestIndex index = new ItemSuggestIndex(null, new SuggestProperties(), new SimpleMeterRegistry());
+        index.add(versioned(1, "drill", 0));
+        index.add(versioned(2, "drill", 0));
+        Item renamed = versioned(1, "drone", 1);
+        Item renamedAgain = versioned(1, "dress", 2);
+
+        index.update(renamedAgain);
+        index.update(renamed);
+        index.update(renamedAgain);
+        assertEquals(List.of(new ItemSuggestionDto("dress", 1), new ItemSuggestionDto("drill", 1)),
+                index.suggest("dr", 10));
+
+        index.remove(1);
+        index.remove(1);
+        assertEquals(List.of(new ItemSuggestionDto("drill", 1)), index.suggest("dr", 10));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void boundedModeKeepsHeaviestWords() {
+        SuggestProperties properties = new SuggestProperties();
+        properties.setMaxTerms(2);
+        ItemSuggestIndex index = new ItemSuggestIndex(null, properties, new SimpleMeterRegistry());
+
+        index.add(new Item(1, "drill", "drill", true));
+        index.add(new Item(2, "drill", "drill", true));
+        index.add(new Item(3, "drone", "drone", true));
+        index.add(new Item(4, "dress", "dress", true));
+
+        assertEquals(2, index.size());
+        List<ItemSuggestionDto> suggestions = index.suggest("dr", 10);
+        assertEquals(new ItemSuggestionDto("drill", 2), suggestions.get(0));
+        assertTrue(suggestions.contains(new ItemSuggestionDto("dress", 1)));
+    }
+
+    private static Item versioned(int id, String word, int version) {
+        Item item = new Item(id, word, word, true);
+        item.setVersion(version);
+        return item;
+    }
+
+    private List<ItemSuggestionDto> expected(Map<Integer, Item> items, String prefix, int topK) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (Item item : items.values()) {
+            if (!item.getAvailable()) {
+                continue;
+            }
+            Set<String> words = new HashSet<>();
+            for (String text : List.of(item.getName(), item.getDescription())) {
+                for (String word : text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+                    if (word.length() >= 2) {
+                        words.add(word);
+                    }
+                }
+            }
+            words.forEach(word -> counts.merge(word, 1, Integer::sum));
+        }
+        return counts.entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith(prefix))
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(topK)
+                .map(entry -> new ItemSuggestionDto(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    private String randomText(Random random) {
+        List<String> words = new ArrayList<>();
+        int count = 1 + random.nextInt(3);
+        for (int i = 0; i < count; i++) {
+            words.add(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return String.join(random.nextBoolean() ? " " : ", ", words);
+    }
+}
@@ -0,0 +1,135 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDtoInput;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.cache.EntityCacheProperties;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ItemAvailabilityCalendarTest {
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemAvailabilityCalendar itemAvailabilityCalendar;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EntityCacheProperties entityCacheProperties;
+
+    @Test
+    void overlappingAndAdjacentBookingsAreMergedAndClipped() {
+        UserDto owner = user("calendar-owner");
+        UserDto booker = user("calendar-booker");
+        Integer itemId = itemService.add(owner.getId(), new ItemDto(null, "kayak", "kayak", true, null)).getId();
+        LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+
+        save(itemId, booker, base.minusDays(10), base.minusDays(9), BookingStatus.APPROVED);
+        save(itemId, booker, base.minusHours(1), base.plusHours(2), BookingStatus.APPROVED);
+        save(itemId, booker, base.plusHours(1), base.plusHours(3), BookingStatus.WAITING);
+        save(itemId, booker, base.plusHours(3), base.plusHours(4), BookingStatus.APPROVED);
+        save(itemId, booker, base.plusHours(5), base.plusHours(6), BookingStatus.REJECTED);
+        save(itemId, booker, base.plusHours(7), base.plusHours(9), BookingStatus.APPROVED);
+        itemAvailabilityCalendar.evict(List.of(itemId));
+
+        ItemAvailabilityDto availability = itemService.getAvailability(itemId, booker.getId(), base, base.plusHours(8));
+
+        assertEquals(List.of(interval(base, base.plusHours(4)), interval(base.plusHours(7), base.plusHours(8))),
+                availability.getBusy());
+        assertEquals(List.of(interval(base.plusHours(4), base.plusHours(7))), availability.getFree());
+    }
+
+    @Test
+    void cachedCalendarIsDroppedAfterBookingChange() {
+        UserDto owner = user("cached-owner");
+        UserDto booker = user("cached-booker");
+        Integer itemId = itemService.add(owner.getId(), new ItemDto(null, "tent", "tent", true, null)).getId();
+        LocalDateTime from = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime to = from.plusDays(1);
+
+        ItemAvailabilityDto before = itemService.getAvailability(itemId, booker.getId(), from, to);
+        assertEquals(List.of(interval(from, to)), before.getFree());
+
+        Integer bookingId = bookingService.add(booker.getId(),
+                new BookingDtoInput(null, itemId, from.plusHours(2), from.plusHours(5))).getId();
+        assertEquals(List.of(interval(from.plusHours(2), from.plusHours(5))),
+                itemService.getAvailability(itemId, booker.getId(), from, to).getBusy());
+
+        bookingService.setApprove(bookingId, owner.getId(), false);
+        assertEquals(List.of(interval(from, to)), itemService.getAvailability(itemId, booker.getId(), from, to).getFree());
+    }
+
+    @Test
+    void evictionBetweenCheckAndPutDropsTheStaleTimeline() {
+        UserDto owner = user("raced-owner");
+        UserDto booker = user("raced-booker");
+        Integer itemId = itemService.add(owner.getId(), new ItemDto(null, "canoe", "canoe", true, null)).getId();
+        LocalDateTime from = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime to = from.plusDays(1);
+        AtomicBoolean raced = new AtomicBoolean();
+        ItemAvailabilityCalendar calendar = new ItemAvailabilityCalendar(bookingRepository, transactionManager,
+                entityCacheProperties, new SimpleMeterRegistry()) {
+            @Override
+            void beforeCaching(Integer cachedItemId) {
+                if (raced.compareAndSet(false, true)) {
+                    save(itemId, booker, from.plusHours(2), from.plusHours(5), BookingStatus.APPROVED);
+                    evict(List.of(itemId));
+                }
+            }
+        };
+
+        assertEquals(List.of(interval(from, to)), calendar.getAvailability(itemId, from, to).getFree());
+        assertTrue(raced.get());
+        assertEquals(List.of(interval(from.plusHours(2), from.plusHours(5))),
+                calendar.getAvailability(itemId, from, to).getBusy());
+    }
+
+    private void save(Integer itemId, UserDto booker, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        Booking booking = new Booking();
+        booking.setItem(itemRepository.findById(itemId).get());
+        booking.setBooker(userRepository.findById(booker.getId()).get());
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setStatus(status);
+        bookingRepository.save(booking);
+    }
+
+    private AvailabilityIntervalDto interval(LocalDateTime start, LocalDateTime end) {
+        return new AvailabilityIntervalDto(start, end);
+    }
+
+    private UserDto user(String name) {
+        return userService.add(UserDto.builder().name(name).email(name + System.nanoTime() % 1_000_000 + "@calendar.test").build());
+    }
+}
@@ -0,0 +1,181 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingDtoInput;
+import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.BookingConflictException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoExtended;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Checks that the summary answers exactly like the on-demand {@link ItemBookingResolver}
+ * after random sequences of booking writes.
+ */
+@SpringBootTest
+class ItemBookingSummaryTest {
+    private static final int ITEMS = 4;
+    private static final int OPERATIONS = 60;
+
+    @Autowired
+    private ItemBookingSummary itemBookingSummary;
+    @Autowired
+    private ItemBookingResolver itemBookingResolver;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemAvailabilityCalendar itemAvailabilityCalendar;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void summaryMatchesResolverAfterRandomBookingChanges() {
+        for (long seed = 1; seed <= 5; seed++) {
+            checkRandomHistory(seed);
+        }
+    }
+
+    @Test
+    void rollForwardMovesStartedBookingToLast() {
+        UserDto owner = user("roll-owner");
+        Integer itemId = itemService.add(owner.getId(), new ItemDto(null, "tent", "tent", true, null)).getId();
+        LocalDateTime start = LocalDateTime.now().minusMinutes(1);
+        Integer bookingId = startedBooking(itemId, start);
+
+        ItemDtoExtended before = summarized(itemId, start.minusMinutes(1));
+        assertNull(before.getLastBooking());
+        assertEquals(bookingId, before.getNextBooking().getId());
+
+        itemBookingSummary.rollForward();
+
+        double fallbacks = meterRegistry.get("shareit.booking.summary.fallbacks").counter().count();
+        ItemDtoExtended after = summarized(itemId, LocalDateTime.now());
+        assertEquals(bookingId, after.getLastBooking().getId());
+        assertNull(after.getNextBooking());
+        assertEquals(fallbacks, meterRegistry.get("shareit.booking.summary.fallbacks").counter().count());
+    }
+
+    @Test
+    void getReadsExpiredBookingsNextToComments() {
+        UserDto owner = user("fan-owner");
+        Integer itemId = itemService.add(owner.getId(), new ItemDto(null, "canoe", "canoe", true, null)).getId();
+        Integer bookingId = startedBooking(itemId, LocalDateTime.now().minusMinutes(1));
+
+        double fallbacks = meterRegistry.get("shareit.booking.summary.fallbacks").counter().count();
+        long branches = meterRegistry.find("shareit.parallel-reads.branch").tag("branch", "bookings").timers().stream()
+                .mapToLong(Timer::count).sum();
+        ItemDtoExtended item = (ItemDtoExtended) itemService.get(itemId, owner.getId());
+
+        assertEquals(bookingId, item.getLastBooking().getId());
+        assertNull(item.getNextBooking());
+        assertEquals(fallbacks + 1, meterRegistry.get("shareit.booking.summary.fallbacks").counter().count());
+        assertEquals(branches + 1, meterRegistry.get("shareit.parallel-reads.branch").tag("branch", "bookings")
+                .timer().count());
+    }
+
+    private void checkRandomHistory(long seed) {
+        Random random = new Random(seed);
+        UserDto owner = user("owner" + seed);
+        List<UserDto> bookers = List.of(user("first" + seed), user("second" + seed));
+        List<Integer> itemIds = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            itemIds.add(itemService.add(owner.getId(), new ItemDto(null, "item " + i, "item", true, null)).getId());
+        }
+        List<Integer> waiting = new ArrayList<>();
+        LocalDateTime base = LocalDateTime.now();
+
+        for (int operation = 0; operation < OPERATIONS; operation++) {
+            if (waiting.isEmpty() || random.nextInt(3) > 0) {
+                LocalDateTime start = base.plusHours(random.nextInt(400) - 200).plusMinutes(random.nextInt(2) * 30);
+                BookingDtoInput input = new BookingDtoInput(null, itemIds.get(random.nextInt(ITEMS)),
+                        start, start.plusHours(1 + random.nextInt(3)));
+                try {
+                    BookingDtoOutput booking = bookingService.add(bookers.get(random.nextInt(bookers.size())).getId(), input);
+                    waiting.add(booking.getId());
+                } catch (BookingConflictException ignored) {
+                    // overlapping requests are part of the random history
+                }
+            } else {
+                Integer bookingId = waiting.remove(random.nextInt(waiting.size()));
+                try {
+                    bookingService.setApprove(bookingId, owner.getId(), random.nextBoolean());
+                } catch (BookingConflictException ignored) {
+                    // stays WAITING
+                }
+            }
+            assertSameAsResolver(itemIds, seed, operation);
+        }
+    }
+
+    private void assertSameAsResolver(List<Integer> itemIds, long seed, int operation) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ItemDtoExtended> expected = stubs(itemIds);
+        List<ItemDtoExtended> actual = stubs(itemIds);
+        itemBookingResolver.resolve(expected, now);
+        itemBookingSummary.resolve(actual, now);
+        assertEquals(describe(expected), describe(actual), "seed " + seed + ", operation " + operation);
+    }
+
+    /**
+     * A booking that started at {@code start}, with the summary entry loaded just before that: the entry still holds
+     * the booking as next, as it would between the start and the next roll-forward.
+     */
+    private Integer startedBooking(Integer itemId, LocalDateTime start) {
+        UserDto booker = user("booker");
+        LocalDateTime future = LocalDateTime.now().plusDays(1);
+        Integer bookingId = bookingService.add(booker.getId(),
+                new BookingDtoInput(null, itemId, future, future.plusHours(1))).getId();
+        jdbcTemplate.update("update bookings set start_time = ?, end_time = ? where id = ?",
+                Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(1)), bookingId);
+        itemAvailabilityCalendar.evict(List.of(itemId));
+        itemBookingSummary.refresh(List.of(itemId), start.minusMinutes(1));
+        return bookingId;
+    }
+
+    private ItemDtoExtended summarized(Integer itemId, LocalDateTime now) {
+        List<ItemDtoExtended> items = stubs(List.of(itemId));
+        itemBookingSummary.resolve(items, now);
+        return items.get(0);
+    }
+
+    private List<ItemDtoExtended> stubs(List<Integer> itemIds) {
+        return itemIds.stream().map(itemId -> {
+            ItemDtoExtended item = new ItemDtoExtended();
+            item.setId(itemId);
+            return item;
+        }).collect(Collectors.toList());
+    }
+
+    private String describe(List<ItemDtoExtended> items) {
+        return items.stream()
+                .map(item -> item.getId() + ":" + item.getLastBooking() + "/" + item.getNextBooking())
+                .collect(Collectors.joining(", "));
+    }
+
+    private UserDto user(String name) {
+        return userService.add(UserDto.builder().name(name).email(name + System.nanoTime() % 1_000_000 + "@summary.test").build());
+    }
+}
@@ -0,0 +1,143 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDtoExtended;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ItemServiceQueryCountTest {
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemBookingSummary itemBookingSummary;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void getAllRunsSameNumberOfQueriesForAnyNumberOfItems() {
+        User smallOwner = ownerWithBookedItems("small", 2);
+        User largeOwner = ownerWithBookedItems("large", 20);
+
+        long smallQueries = countQueries(smallOwner, 2);
+        long largeQueries = countQueries(largeOwner, 20);
+
+        assertEquals(smallQueries, largeQueries);
+    }
+
+    @Test
+    void getRunsInOneReadOnlyTransaction() {
+        User owner = ownerWithBookedItems("single", 1);
+        Integer itemId = itemService.getAll(owner.getId(), PageParams.of(0, 100)).getContent().get(0).getId();
+
+        statistics.clear();
+        ItemDtoExtended item = (ItemDtoExtended) itemService.get(itemId, owner.getId());
+
+        assertNotNull(item.getLastBooking());
+        assertEquals(1, statistics.getTransactionCount());
+        assertEquals(1, statistics.getConnectCount());
+        assertEquals(0, statistics.getFlushCount());
+    }
+
+    @Test
+    void ownerListingRequestChecksOutOneConnection() throws Exception {
+        User owner = ownerWithBookedItems("request", 3);
+        DistributionSummary connections = DistributionSummary.builder("shareit.http.db.connections")
+                .tag("endpoint", "GET /items")
+                .register(meterRegistry);
+        long requests = connections.count();
+        double checkouts = connections.totalAmount();
+
+        mockMvc.perform(get("/items").header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk());
+
+        assertEquals(requests + 1, connections.count());
+        assertEquals(checkouts + 1, connections.totalAmount());
+    }
+
+    private long countQueries(User owner, int expectedItems) {
+        statistics.clear();
+        List<ItemDtoExtended> items = itemService.getAll(owner.getId(), PageParams.of(0, 100)).getContent();
+        long queries = statistics.getPrepareStatementCount();
+
+        assertEquals(expectedItems, items.size());
+        items.forEach(item -> {
+            assertNotNull(item.getLastBooking());
+            assertNotNull(item.getNextBooking());
+        });
+        return queries;
+    }
+
+    private User ownerWithBookedItems(String prefix, int itemCount) {
+        User owner = userRepository.save(User.builder().name(prefix + "Owner").email(prefix + "owner@query.test").build());
+        User booker = userRepository.save(User.builder().name(prefix + "Booker").email(prefix + "booker@query.test").build());
+        LocalDateTime now = LocalDateTime.now();
+        List<Integer> itemIds = new ArrayList<>();
+
+        for (int i = 0; i < itemCount; i++) {
+            Item item = new Item(null, prefix + " item " + i, "description", true);
+            item.setOwner(owner);
+            item = itemRepository.save(item);
+
+            saveBooking(item, booker, now.minusDays(2), now.minusDays(1), BookingStatus.APPROVED);
+            saveBooking(item, booker, now.plusDays(1), now.plusDays(2), BookingStatus.WAITING);
+            itemIds.add(item.getId());
+        }
+        itemBookingSummary.refresh(itemIds);
+        return owner;
+    }
+
+    private void saveBooking(Item item, User booker, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setStatus(status);
+        bookingRepository.save(booking);
+    }
+}
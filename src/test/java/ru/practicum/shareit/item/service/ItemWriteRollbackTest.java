@@ -0,0 +1,116 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.cache.EntityCache;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@SpringBootTest
+class ItemWriteRollbackTest {
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private EntityCache<Item> itemCache;
+    @Autowired
+    private EntityCache<User> userCache;
+    @Autowired
+    private ItemSearchIndex itemSearchIndex;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void rolledBackItemStaysOutOfCacheAndIndexes() {
+        UserDto owner = userService.add(UserDto.builder().name("owner").email("added@rollback.test").build());
+
+        Integer itemId = transactionTemplate.execute(status -> {
+            ItemDto item = itemService.add(owner.getId(), new ItemDto(null, "quokka", "quokka costume", true, null));
+            status.setRollbackOnly();
+            return item.getId();
+        });
+
+        assertFalse(itemCache.exists(itemId));
+        assertArrayEquals(new int[0], itemSearchIndex.candidates("quokka"));
+        assertEquals(List.of(), itemService.suggest(owner.getId(), "quokk", 10));
+    }
+
+    @Test
+    void rolledBackUpdateKeepsCommittedState() {
+        UserDto owner = userService.add(UserDto.builder().name("owner").email("updated@rollback.test").build());
+        ItemDto item = itemService.add(owner.getId(), new ItemDto(null, "wombat", "wombat costume", true, null));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            itemService.update(item.getId(), owner.getId(), new ItemDto(null, "platypus", null, null, null));
+            userService.update(owner.getId(), UserDto.builder().name("renamed").build());
+            status.setRollbackOnly();
+        });
+
+        assertEquals("wombat", itemService.get(item.getId(), owner.getId()).getName());
+        assertEquals("owner", userCache.find(owner.getId()).orElseThrow().getName());
+        assertArrayEquals(new int[]{item.getId()}, itemSearchIndex.candidates("wombat"));
+        assertArrayEquals(new int[0], itemSearchIndex.candidates("platypus"));
+        assertEquals(List.of(), itemService.suggest(owner.getId(), "platyp", 10));
+    }
+
+    @Test
+    void rolledBackUpdateOnColdCacheKeepsCommittedState() {
+        UserDto owner = userService.add(UserDto.builder().name("owner").email("cold@rollback.test").build());
+        ItemDto item = itemService.add(owner.getId(), new ItemDto(null, "echidna", "echidna costume", true, null));
+        itemCache.evict(item.getId());
+        userCache.evict(owner.getId());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            itemService.update(item.getId(), owner.getId(), new ItemDto(null, "dingo", null, false, null));
+            userService.update(owner.getId(), UserDto.builder().name("renamed").build());
+            status.setRollbackOnly();
+        });
+
+        Item cached = itemCache.find(item.getId()).orElseThrow();
+        assertEquals("echidna", cached.getName());
+        assertEquals(true, cached.getAvailable());
+        assertEquals("owner", userCache.find(owner.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void deletedOwnerItemsLeaveIndexes() {
+        UserDto owner = userService.add(UserDto.builder().name("owner").email("deleted@rollback.test").build());
+        UserDto other = userService.add(UserDto.builder().name("other").email("kept@rollback.test").build());
+        itemService.add(owner.getId(), new ItemDto(null, "marsupial", "marsupial pouch", true, null));
+        ItemDto kept = itemService.add(other.getId(), new ItemDto(null, "bandicoot", "marsupial mask", true, null));
+
+        userService.delete(owner.getId());
+
+        assertArrayEquals(new int[]{kept.getId()}, itemSearchIndex.candidates("marsupial"));
+        assertEquals(List.of(), itemService.suggest(other.getId(), "pouch", 10));
+        assertEquals(1, itemService.suggest(other.getId(), "marsup", 10).size());
+    }
+
+    @Test
+    void rolledBackDeleteKeepsOwnerItemsIndexed() {
+        UserDto owner = userService.add(UserDto.builder().name("owner").email("undeleted@rollback.test").build());
+        ItemDto item = itemService.add(owner.getId(), new ItemDto(null, "numbat", "numbat costume", true, null));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            userService.delete(owner.getId());
+            status.setRollbackOnly();
+        });
+
+        assertArrayEquals(new int[]{item.getId()}, itemSearchIndex.candidates("numbat"));
+        assertEquals(1, itemService.suggest(owner.getId(), "numb", 10).size());
+        assertEquals("owner", userCache.find(owner.getId()).orElseThrow().getName());
+    }
+}
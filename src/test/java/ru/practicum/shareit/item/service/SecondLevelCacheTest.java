@@ -0,0 +1,103 @@
+package ru.practicum.shareit.item.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDtoExtended;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class SecondLevelCacheTest {
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private UserService userService;
+
+    private Statistics statistics;
+    private User author;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        String suffix = String.valueOf(System.nanoTime() % 1_000_000);
+        User owner = userRepository.save(User.builder().name("owner").email("owner" + suffix + "@cache.test").build());
+        author = userRepository.save(User.builder().name("author").email("author" + suffix + "@cache.test").build());
+        item = new Item(null, "kayak", "sea kayak", true);
+        item.setOwner(owner);
+        item = itemRepository.save(item);
+
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(author);
+        booking.setStart(LocalDateTime.now().minusDays(2));
+        booking.setEnd(LocalDateTime.now().minusDays(1));
+        booking.setStatus(BookingStatus.APPROVED);
+        bookingRepository.save(booking);
+    }
+
+    @Test
+    void addCommentInvalidatesCachedItemComments() {
+        assertTrue(comments().getComments().isEmpty());
+        statistics.clear();
+        assertTrue(comments().getComments().isEmpty());
+        assertEquals(1, statistics.getQueryRegionStatistics(CommentRepository.ITEM_COMMENTS_REGION).getHitCount());
+
+        Comment comment = new Comment();
+        comment.setText("Stable and fast");
+        itemService.addComment(item.getId(), author.getId(), comment);
+
+        ItemDtoExtended afterComment = comments();
+        assertEquals(1, afterComment.getComments().size());
+        assertEquals("Stable and fast", afterComment.getComments().get(0).getText());
+    }
+
+    @Test
+    void cachedCommentsNeedNoStatementsAndFollowAuthorRenames() {
+        Comment comment = new Comment();
+        comment.setText("Dry inside");
+        itemService.addComment(item.getId(), author.getId(), comment);
+        comments();
+        statistics.clear();
+
+        assertEquals("author", comments().getComments().get(0).getAuthorName());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        userService.update(author.getId(), UserDto.builder().name("renamed").build());
+
+        assertEquals("renamed", comments().getComments().get(0).getAuthorName());
+    }
+
+    private ItemDtoExtended comments() {
+        return (ItemDtoExtended) itemService.get(item.getId(), author.getId());
+    }
+}
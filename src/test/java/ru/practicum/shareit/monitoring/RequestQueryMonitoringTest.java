@@ -0,0 +1,78 @@
+package ru.practicum.shareit.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class RequestQueryMonitoringTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void requestRecordsItsStatementsAndRepositoryCalls() throws Exception {
+        DistributionSummary statements = DistributionSummary.builder("shareit.http.sql.statements")
+                .tag("endpoint", "POST /users")
+                .register(meterRegistry);
+        long requests = statements.count();
+        double executed = statements.totalAmount();
+
+        mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"metered\",\"email\":\"metered@monitoring.test\"}"))
+                .andExpect(status().isOk());
+
+        assertEquals(requests + 1, statements.count());
+        assertTrue(statements.totalAmount() > executed);
+        Timer saves = meterRegistry.get("shareit.repository.invocations")
+                .tag("repository", "UserRepository")
+                .tag("method", "save")
+                .tag("endpoint", "POST /users")
+                .tag("outcome", "success")
+                .timer();
+        assertTrue(saves.count() >= 1);
+    }
+
+    @Test
+    void statementRepeatedPastThresholdIsReported() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MonitoringProperties properties = new MonitoringProperties();
+        properties.setRepeatedStatementThreshold(2);
+        RequestQueryMonitoringInterceptor interceptor = new RequestQueryMonitoringInterceptor(registry, properties);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items/7");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/items/{itemId}");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, null);
+        for (int i = 0; i < 3; i++) {
+            RequestQueryStatistics.current().recordStatement("select * from comments where item_id=?");
+        }
+        RequestQueryStatistics.current().recordStatement("select * from items where id=?");
+        interceptor.afterCompletion(request, response, null, null);
+
+        assertNull(RequestQueryStatistics.current());
+        assertEquals(4, registry.get("shareit.http.sql.statements").tag("endpoint", "GET /items/{itemId}")
+                .summary().totalAmount());
+        assertEquals(1, registry.get("shareit.http.sql.repeated").tag("endpoint", "GET /items/{itemId}")
+                .counter().count());
+    }
+}
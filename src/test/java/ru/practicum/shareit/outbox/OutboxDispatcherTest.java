@@ -0,0 +1,105 @@
+package ru.practicum.shareit.outbox;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox",
+        "shareit.outbox.queue-capacity=2",
+        "shareit.outbox.consumers=1"
+})
+class OutboxDispatcherTest {
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private RecordingHandler recordingHandler;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void eventsAreDeliveredInOrderAndDeletedWhenBusIsFull() throws InterruptedException {
+        UserDto owner = userService.add(UserDto.builder().name("owner").email("owner@outbox.test").build());
+        List<Integer> itemIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            itemIds.add(itemService.add(owner.getId(), new ItemDto(null, "item " + i, "item", true, null)).getId());
+        }
+        assertEquals(5, outboxEventRepository.count());
+
+        double backpressure = meterRegistry.get("shareit.outbox.backpressure").counter().count();
+        outboxDispatcher.dispatch();
+        assertTrue(meterRegistry.get("shareit.outbox.backpressure").counter().count() > backpressure);
+        assertEquals(5, outboxEventRepository.count());
+
+        recordingHandler.gate.countDown();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (outboxEventRepository.count() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            outboxDispatcher.dispatch();
+        }
+
+        assertEquals(0, outboxEventRepository.count());
+        assertEquals(itemIds, recordingHandler.handled.stream().map(OutboxEvent::getAggregateId).toList());
+        assertTrue(recordingHandler.handled.stream().allMatch(event -> event.getType() == OutboxEventType.ITEM_CREATED));
+    }
+
+    @Test
+    void rolledBackChangeLeavesNoEvent() {
+        UserDto owner = userService.add(UserDto.builder().name("rollback").email("rollback@outbox.test").build());
+        long before = outboxEventRepository.count();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            itemService.add(owner.getId(), new ItemDto(null, "ghost", "never committed", true, null));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(before, outboxEventRepository.count());
+    }
+
+    @TestConfiguration
+    static class Handlers {
+        @Bean
+        RecordingHandler recordingHandler() {
+            return new RecordingHandler();
+        }
+    }
+
+    static class RecordingHandler implements OutboxEventHandler {
+        private final CountDownLatch gate = new CountDownLatch(1);
+        private final List<OutboxEvent> handled = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void handle(OutboxEvent event) {
+            try {
+                gate.await();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            handled.add(event);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.concurrency.ConcurrencyLimitFilter;
+import ru.practicum.shareit.exception.ServiceOverloadedException;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitInterceptorTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Test
+    void chargesEndpointCostToCallingUser() {
+        RateLimitInterceptor interceptor = interceptor(counting(), 0);
+
+        assertTrue(interceptor.preHandle(request("/items/search", "1"), response, null));
+        TooManyRequestsException limited = assertThrows(TooManyRequestsException.class,
+                () -> interceptor.preHandle(request("/items/search", "1"), response, null));
+        assertEquals(8, limited.getRetryAfterSeconds());
+
+        assertTrue(interceptor.preHandle(request("/users/{id}", "1"), response, null));
+        assertTrue(interceptor.preHandle(request("/items/search", "2"), response, null));
+        assertEquals(1, meterRegistry.get("shareit.rate-limit.requests")
+                .tag("endpoint", "GET /items/search").tag("outcome", "limited").counter().count());
+        assertEquals(2, meterRegistry.get("shareit.rate-limit.clients").gauge().value());
+    }
+
+    @Test
+    void shedsExpensiveRequestsByConcurrencyLimitSlots() throws Exception {
+        ConcurrencyLimitFilter concurrencyLimit = new ConcurrencyLimitFilter(4, Duration.ofMillis(50), meterRegistry);
+        RateLimitInterceptor interceptor = interceptor(concurrencyLimit, 0);
+        List<MockHttpServletRequest> streams = occupy(concurrencyLimit, 3);
+
+        assertThrows(ServiceOverloadedException.class,
+                () -> interceptor.preHandle(request("/items/search", "1"), response, null));
+        assertTrue(interceptor.preHandle(request("/users/{id}", "1"), response, null));
+        assertEquals(1, meterRegistry.get("shareit.rate-limit.requests")
+                .tag("endpoint", "GET /items/search").tag("outcome", "shed").counter().count());
+
+        streams.forEach(stream -> ((MockAsyncContext) stream.getAsyncContext()).complete());
+        assertTrue(interceptor.preHandle(request("/items/search", "1"), response, null));
+    }
+
+    @Test
+    void shedsByMaxInFlightWhenConcurrencyIsNotLimited() throws Exception {
+        ConcurrencyLimitFilter counting = counting();
+        RateLimitInterceptor interceptor = interceptor(counting, 4);
+        List<MockHttpServletRequest> streams = occupy(counting, 3);
+
+        assertThrows(ServiceOverloadedException.class,
+                () -> interceptor.preHandle(request("/items/search", "1"), response, null));
+        assertTrue(interceptor.preHandle(request("/users/{id}", "1"), response, null));
+
+        streams.addAll(occupy(counting, 2));
+        assertThrows(ServiceOverloadedException.class,
+                () -> interceptor.preHandle(request("/users/{id}", "1"), response, null));
+
+        streams.forEach(stream -> ((MockAsyncContext) stream.getAsyncContext()).complete());
+        assertEquals(0, counting.inFlight());
+        assertTrue(interceptor.preHandle(request("/items/search", "1"), response, null));
+    }
+
+    @Test
+    void streamingRequestIsChargedOnce() {
+        RateLimitInterceptor interceptor = interceptor(counting(), 0);
+        MockHttpServletRequest request = request("/items/search", "1");
+
+        interceptor.preHandle(request, response, null);
+        request.setDispatcherType(DispatcherType.ASYNC);
+        assertTrue(interceptor.preHandle(request, response, null));
+        assertEquals(1, meterRegistry.get("shareit.rate-limit.requests")
+                .tag("endpoint", "GET /items/search").tag("outcome", "allowed").counter().count());
+    }
+
+    private ConcurrencyLimitFilter counting() {
+        return new ConcurrencyLimitFilter(0, Duration.ofMillis(50), meterRegistry);
+    }
+
+    private static List<MockHttpServletRequest> occupy(ConcurrencyLimitFilter filter, int requests) throws Exception {
+        List<MockHttpServletRequest> streams = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            MockHttpServletRequest stream = new MockHttpServletRequest("GET", "/bookings/stream");
+            stream.setAsyncSupported(true);
+            filter.doFilter(stream, new MockHttpServletResponse(), (request, response) -> request.startAsync());
+            streams.add(stream);
+        }
+        return streams;
+    }
+
+    private RateLimitInterceptor interceptor(ConcurrencyLimitFilter concurrencyLimit, int maxInFlight) {
+        RateLimitProperties properties = new RateLimitProperties();
+        RateLimitProperties.EndpointCost search = new RateLimitProperties.EndpointCost();
+        search.setEndpoint("GET /items/search");
+        search.setCost(10);
+        properties.setCosts(List.of(search));
+        properties.setMaxInFlight(maxInFlight);
+        properties.setExpensiveShare(0.5);
+        RateLimiter limiter = new RateLimiter(12, 1, Duration.ofMinutes(1), 100, () -> 0L);
+        return new RateLimitInterceptor(limiter, properties, concurrencyLimit, meterRegistry);
+    }
+
+    private static MockHttpServletRequest request(String pattern, String userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", pattern);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        request.addHeader(RateLimitInterceptor.USER_HEADER, userId);
+        return request;
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.concurrency.ConcurrencyLimitFilter;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ratelimit",
+        "shareit.rate-limit.capacity=20",
+        "shareit.rate-limit.refill-per-second=0.1"
+})
+@AutoConfigureMockMvc
+class RateLimitTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter;
+
+    @Test
+    void exhaustedUserGets429WhileOthersAreServed() throws Exception {
+        UserDto greedy = userService.add(UserDto.builder().name("greedy").email("greedy@limit.test").build());
+        UserDto polite = userService.add(UserDto.builder().name("polite").email("polite@limit.test").build());
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/items/search?text=drill").header(RateLimitInterceptor.USER_HEADER, greedy.getId()))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/items/search?text=drill").header(RateLimitInterceptor.USER_HEADER, greedy.getId()))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "100"))
+                .andExpect(jsonPath("$.error").exists());
+
+        mockMvc.perform(get("/users/" + greedy.getId()).header(RateLimitInterceptor.USER_HEADER, polite.getId()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void expensiveRequestsAreShedFirstUnderLoad() throws Exception {
+        UserDto busy = userService.add(UserDto.builder().name("busy").email("busy@limit.test").build());
+        ConcurrencyLimitFilter counting = concurrencyLimitFilter.getFilter();
+        List<MockHttpServletRequest> streams = new ArrayList<>();
+        // 0.75 of max-in-flight=150 are taken, the next expensive request is one too many
+        for (int i = 0; i < 113; i++) {
+            MockHttpServletRequest stream = new MockHttpServletRequest("GET", "/bookings/stream");
+            stream.setAsyncSupported(true);
+            counting.doFilter(stream, new MockHttpServletResponse(), (request, response) -> request.startAsync());
+            streams.add(stream);
+        }
+        try {
+            mockMvc.perform(get("/items/search?text=drill").header(RateLimitInterceptor.USER_HEADER, busy.getId()))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                    .andExpect(jsonPath("$.error").exists());
+            mockMvc.perform(get("/users/" + busy.getId()).header(RateLimitInterceptor.USER_HEADER, busy.getId()))
+                    .andExpect(status().isOk());
+        } finally {
+            streams.forEach(stream -> ((MockAsyncContext) stream.getAsyncContext()).complete());
+        }
+        mockMvc.perform(get("/items/search?text=drill").header(RateLimitInterceptor.USER_HEADER, busy.getId()))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void drainsBurstThenRefillsAtRate() {
+        RateLimiter limiter = new RateLimiter(10, 10, Duration.ofMinutes(1), 100, clock::get);
+
+        assertEquals(0, limiter.tryTake("a", 4));
+        assertEquals(0, limiter.tryTake("a", 4));
+        assertEquals(200 * MILLIS, limiter.tryTake("a", 4));
+        assertEquals(0, limiter.tryTake("b", 10));
+
+        clock.addAndGet(199 * MILLIS);
+        assertEquals(MILLIS, limiter.tryTake("a", 4));
+        clock.addAndGet(MILLIS);
+        assertEquals(0, limiter.tryTake("a", 4));
+
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertEquals(0, limiter.tryTake("a", 10), "refill must stop at capacity, not beyond");
+        assertTrue(limiter.tryTake("a", 1) > 0);
+    }
+
+    @Test
+    void concurrentTakesNeverOverdrawBucket() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(1000, 0.001, Duration.ofMinutes(1), 100, clock::get);
+        AtomicInteger taken = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException exception) {
+                    return;
+                }
+                for (int j = 0; j < 500; j++) {
+                    if (limiter.tryTake("shared", 1) == 0) {
+                        taken.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1000, taken.get());
+    }
+
+    @Test
+    void idleBucketsAreEvictedOnlyOnceFull() {
+        RateLimiter limiter = new RateLimiter(10, 1, Duration.ofSeconds(1), 100, clock::get);
+        limiter.tryTake("a", 10);
+
+        clock.addAndGet(Duration.ofSeconds(5).toNanos());
+        limiter.cleanUp();
+        assertEquals(1, limiter.trackedClients(), "a half-empty bucket must outlive a shorter idle timeout");
+        assertTrue(limiter.tryTake("a", 10) > 0);
+
+        clock.addAndGet(Duration.ofSeconds(11).toNanos());
+        limiter.cleanUp();
+        assertEquals(0, limiter.trackedClients());
+        assertEquals(0, limiter.tryTake("a", 10));
+    }
+}
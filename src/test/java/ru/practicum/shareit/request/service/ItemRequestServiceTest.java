@@ -0,0 +1,122 @@
+package ru.practicum.shareit.request.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestDtoExtended;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ItemRequestServiceTest {
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void answersOfAPageAreLoadedWithOneQuery() {
+        UserDto owner = user("answering");
+        UserDto small = requesterWithAnsweredRequests("small", owner, 1);
+        UserDto large = requesterWithAnsweredRequests("large", owner, 10);
+
+        long smallQueries = countQueries(small, 1);
+        long largeQueries = countQueries(large, 10);
+
+        assertEquals(smallQueries, largeQueries);
+    }
+
+    @Test
+    void othersAreListedNewestFirstAcrossPages() {
+        UserDto viewer = user("viewer");
+        UserDto requester = user("requester");
+        List<Integer> own = List.of(request(viewer, "own").getId());
+        List<Integer> others = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            others.add(request(requester, "other " + i).getId());
+        }
+
+        List<ItemRequestDtoExtended> listed = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<ItemRequestDtoExtended> page = itemRequestService.getOthers(viewer.getId(), new PageParams(0, 2, cursor));
+            assertTrue(page.getContent().size() <= 2);
+            listed.addAll(page.getContent());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        List<Integer> listedIds = listed.stream().map(ItemRequestDto::getId).toList();
+        assertTrue(listedIds.containsAll(others));
+        assertFalse(listedIds.stream().anyMatch(own::contains));
+        assertEquals(listed.stream()
+                .sorted(Comparator.comparing(ItemRequestDto::getCreated).thenComparing(ItemRequestDto::getId).reversed())
+                .toList(), listed);
+    }
+
+    @Test
+    void itemsCanOnlyAnswerExistingRequests() {
+        UserDto requester = user("asking");
+        UserDto owner = user("offering");
+        ItemRequestDto request = request(requester, "a tent for two");
+        ItemDto offered = itemService.add(owner.getId(), new ItemDto(null, "tent", "two-person tent", true, request.getId()));
+
+        ItemRequestDtoExtended found = itemRequestService.get(request.getId(), owner.getId());
+        assertEquals(List.of(offered), found.getItems());
+
+        assertThrows(NotFoundException.class, () -> itemService.add(owner.getId(),
+                new ItemDto(null, "tent", "two-person tent", true, Integer.MAX_VALUE)));
+        assertThrows(NotFoundException.class, () -> itemRequestService.get(Integer.MAX_VALUE, owner.getId()));
+    }
+
+    private long countQueries(UserDto requester, int expectedRequests) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        List<ItemRequestDtoExtended> requests = itemRequestService.getOwn(requester.getId(), PageParams.of(0, 100)).getContent();
+        long queries = statistics.getPrepareStatementCount();
+
+        assertEquals(expectedRequests, requests.size());
+        requests.forEach(request -> assertEquals(2, request.getItems().size()));
+        return queries;
+    }
+
+    private UserDto requesterWithAnsweredRequests(String prefix, UserDto owner, int requestCount) {
+        UserDto requester = user(prefix);
+        for (int i = 0; i < requestCount; i++) {
+            ItemRequestDto request = request(requester, prefix + " request " + i);
+            itemService.add(owner.getId(), new ItemDto(null, "first " + i, "answer", true, request.getId()));
+            itemService.add(owner.getId(), new ItemDto(null, "second " + i, "answer", true, request.getId()));
+        }
+        return requester;
+    }
+
+    private ItemRequestDto request(UserDto requester, String description) {
+        return itemRequestService.add(requester.getId(), new ItemRequestDto(null, description, null));
+    }
+
+    private UserDto user(String name) {
+        return userService.add(UserDto.builder().name(name).email(name + System.nanoTime() % 1_000_000 + "@request.test").build());
+    }
+}